@@ -19,6 +19,11 @@ public enum Alliance {
             return false;
         }
 
+        @Override
+        public Alliance getOpponent() {
+            return BLACK;
+        }
+
         @Override
         public Player choosePlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer) {
             return whitePlayer;
@@ -38,6 +43,11 @@ public enum Alliance {
             return true;
         }
 
+        @Override
+        public Alliance getOpponent() {
+            return WHITE;
+        }
+
         @Override
         public Player choosePlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer) {
             return blackPlayer;
@@ -47,6 +57,7 @@ public enum Alliance {
     public abstract int getDirection();
     public abstract boolean isWhite();
     public abstract boolean isBlack();
+    public abstract Alliance getOpponent();
 
     public abstract Player choosePlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer);
 }
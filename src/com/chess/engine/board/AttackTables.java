@@ -0,0 +1,126 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+
+import java.util.Arrays;
+
+/*
+ * Class holding precomputed attack geometry per square: knight and king
+ * neighbours, the squares a pawn of either side would attack from, and
+ * the sliding rays in the eight directions ordered outwards from the
+ * square. Used to answer "is this square attacked" by looking outward
+ * from the square instead of generating the attacker's moves.
+ */
+final class AttackTables {
+
+    static final int ORTHOGONAL_RAYS = 4;
+
+    private static final int[][] KNIGHT_DELTAS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_DELTAS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    // orthogonal directions first, then diagonals
+    private static final int[][] RAY_DELTAS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}, {-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    static final int[][] KNIGHT_ATTACKS = initLeaperAttacks(KNIGHT_DELTAS);
+    static final int[][] KING_ATTACKS = initLeaperAttacks(KING_DELTAS);
+    static final int[][][] RAYS = initRays();
+    // ray index from the first square to the second, -1 when not on a ray
+    private static final byte[] DIRECTIONS = initDirections();
+    private static final int[][] WHITE_PAWN_ATTACKERS = initPawnAttackers(Alliance.WHITE);
+    private static final int[][] BLACK_PAWN_ATTACKERS = initPawnAttackers(Alliance.BLACK);
+
+    private AttackTables() {
+        throw new RuntimeException("You cant instantiate a Utility Class.");
+    }
+
+    /*
+     * Squares on which a pawn of the given side attacks the indexed square.
+     */
+    static int[] pawnAttackers(final Alliance alliance, final int square) {
+        return alliance.isWhite() ? WHITE_PAWN_ATTACKERS[square] : BLACK_PAWN_ATTACKERS[square];
+    }
+
+    /*
+     * Index of the ray from one square that passes through the other, or -1.
+     */
+    static int direction(final int from, final int to) {
+        return DIRECTIONS[from * BoardUtils.NUM_TILES + to];
+    }
+
+    private static byte[] initDirections() {
+        final byte[] directions = new byte[BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+        Arrays.fill(directions, (byte) -1);
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            for (int direction = 0; direction < RAY_DELTAS.length; direction++) {
+                for (final int target : RAYS[square][direction]) {
+                    directions[square * BoardUtils.NUM_TILES + target] = (byte) direction;
+                }
+            }
+        }
+        return directions;
+    }
+
+    private static int[][] initLeaperAttacks(final int[][] deltas) {
+        final int[][] attacks = new int[BoardUtils.NUM_TILES][];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            final int[] targets = new int[deltas.length];
+            int count = 0;
+            for (final int[] delta : deltas) {
+                final int target = offset(square, delta[0], delta[1]);
+                if (target >= 0) {
+                    targets[count++] = target;
+                }
+            }
+            attacks[square] = Arrays.copyOf(targets, count);
+        }
+        return attacks;
+    }
+
+    private static int[][][] initRays() {
+        final int[][][] rays = new int[BoardUtils.NUM_TILES][RAY_DELTAS.length][];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            for (int direction = 0; direction < RAY_DELTAS.length; direction++) {
+                final int[] ray = new int[BoardUtils.NUM_TILES_PER_ROW - 1];
+                int length = 0;
+                int target = offset(square, RAY_DELTAS[direction][0], RAY_DELTAS[direction][1]);
+                while (target >= 0) {
+                    ray[length++] = target;
+                    target = offset(target, RAY_DELTAS[direction][0], RAY_DELTAS[direction][1]);
+                }
+                rays[square][direction] = Arrays.copyOf(ray, length);
+            }
+        }
+        return rays;
+    }
+
+    private static int[][] initPawnAttackers(final Alliance alliance) {
+        final int[][] attackers = new int[BoardUtils.NUM_TILES][];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            // a pawn attacks one row ahead in its direction, so it stands one row behind
+            final int left = offset(square, -alliance.getDirection(), -1);
+            final int right = offset(square, -alliance.getDirection(), 1);
+            if (left >= 0 && right >= 0) {
+                attackers[square] = new int[]{left, right};
+            } else if (left >= 0) {
+                attackers[square] = new int[]{left};
+            } else if (right >= 0) {
+                attackers[square] = new int[]{right};
+            } else {
+                attackers[square] = new int[0];
+            }
+        }
+        return attackers;
+    }
+
+    /*
+     * Returns the square reached by moving the given number of rows and
+     * columns, or -1 when that leaves the board.
+     */
+    private static int offset(final int square, final int rowDelta, final int columnDelta) {
+        final int row = square / BoardUtils.NUM_TILES_PER_ROW + rowDelta;
+        final int column = square % BoardUtils.NUM_TILES_PER_ROW + columnDelta;
+        if (row < 0 || row >= BoardUtils.NUM_TILES_PER_ROW || column < 0 || column >= BoardUtils.NUM_TILES_PER_ROW) {
+            return -1;
+        }
+        return row * BoardUtils.NUM_TILES_PER_ROW + column;
+    }
+}
@@ -1,6 +1,7 @@
 package com.chess.engine.board;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.metrics.EngineMetrics;
 import com.chess.engine.pieces.*;
 import com.chess.engine.player.BlackPlayer;
 import com.chess.engine.player.Player;
@@ -11,28 +12,75 @@ import com.google.common.collect.Iterables;
 import java.util.*;
 
 /*
- * Class describing a instance of a chess board.
+ * Class describing a instance of a chess board. Tiles are stored as eight
+ * rank arrays; a board made by a move shares every rank the move did not
+ * touch with the board it was made on, and reuses that board's piece list
+ * for a side whose pieces did not change.
+ *
+ * Such a board also keeps the parent's moves for every piece the move
+ * could not affect, bound to the new board, and only generates moves for
+ * the pieces that moved or whose reach crosses a changed tile. Setting
+ * -Dchess.board.fullMoveGeneration=true generates every piece's moves.
  */
 public class Board {
 
-    private final List<Tile> gameBoard;
-    private final Collection<Piece> whitePieces;
-    private final Collection<Piece> blackPieces;
+    private static final boolean INCREMENTAL_MOVE_GENERATION = !Boolean.getBoolean("chess.board.fullMoveGeneration");
+
+    private static final int[] PAWN_OFFSETS = {7, 8, 9, 16};
+
+    private final Tile[][] gameBoard;
+    private final PieceList whitePieces;
+    private final PieceList blackPieces;
     private final WhitePlayer whitePlayer;
     private final BlackPlayer blackPlayer;
     private final Player currentPlayer;
+    private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final long occupiedTiles;
+    private final long zobristHash;
+    private final BoardCache boardCache;
+    private final List<Move> whiteStandardLegalMoves;
+    private final List<Move> blackStandardLegalMoves;
+    // per tile, the start and end index of its piece's moves in its side's move list
+    private final int[] pieceMoveRanges;
 
     public Board(final Builder builder) {
-        this.gameBoard = createGameBoard(builder);
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
+        this(builder, createGameBoard(builder));
+    }
 
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
+    private Board(final Builder builder, final Tile[][] gameBoard) {
+        this(builder, gameBoard, builder.calculateCastlingRights(gameBoard));
+    }
+
+    private Board(final Builder builder, final Tile[][] gameBoard, final int castlingRights) {
+        this(builder, gameBoard, castlingRights,
+                ZobristKeys.standard().hash(gameBoard, castlingRights, builder.nextMoveMaker, builder.enPassantPawn));
+    }
 
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, blackStandardLegalMoves, whiteStandardLegalMoves);
+    private Board(final Builder builder, final Tile[][] gameBoard, final int castlingRights, final long zobristHash) {
+        this.gameBoard = gameBoard;
+        this.castlingRights = castlingRights;
+        this.occupiedTiles = calculateOccupiedTiles(builder, gameBoard);
+        this.zobristHash = zobristHash;
+        this.boardCache = builder.boardCache;
+        this.enPassantPawn = builder.enPassantPawn;
+        this.whitePieces = calculateActivePieces(builder, this.gameBoard, Alliance.WHITE);
+        this.blackPieces = calculateActivePieces(builder, this.gameBoard, Alliance.BLACK);
+
+        this.pieceMoveRanges = new int[BoardUtils.NUM_TILES];
+        final Board parentBoard = INCREMENTAL_MOVE_GENERATION ? builder.parentBoard : null;
+        final long changedTiles = parentBoard == null ? 0 : builder.changedTiles();
+        final long enPassantNeighbours = parentBoard == null ? 0 :
+                enPassantNeighbours(parentBoard.enPassantPawn) | enPassantNeighbours(this.enPassantPawn);
+        this.whiteStandardLegalMoves =
+                calculateLegalMoves(this.whitePieces, parentBoard, changedTiles, enPassantNeighbours);
+        this.blackStandardLegalMoves =
+                calculateLegalMoves(this.blackPieces, parentBoard, changedTiles, enPassantNeighbours);
+
+        this.whitePlayer = new WhitePlayer(this, this.whiteStandardLegalMoves);
+        this.blackPlayer = new BlackPlayer(this, this.blackStandardLegalMoves);
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
+        EngineMetrics.recordBoardConstructed();
     }
 
     public Player currentPlayer() {
@@ -47,6 +95,39 @@ public class Board {
         return this.blackPlayer;
     }
 
+    public long getZobristHash() {
+        return this.zobristHash;
+    }
+
+    public Pawn getEnPassantPawn() {
+        return this.enPassantPawn;
+    }
+
+    /*
+     * Castling rights as a CastlingRights mask.
+     */
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    /*
+     * Occupied tiles, bit i set for tile i.
+     */
+    public long getOccupiedTiles() {
+        return this.occupiedTiles;
+    }
+
+    /*
+     * The cache boards derived from this one are interned in, or null.
+     */
+    public BoardCache getBoardCache() {
+        return this.boardCache;
+    }
+
+    Tile[][] getGameBoard() {
+        return this.gameBoard;
+    }
+
     public Collection<Piece> getBlackPieces() {
         return this.blackPieces;
     }
@@ -55,11 +136,18 @@ public class Board {
         return this.whitePieces;
     }
 
+    /*
+     * The king of the given side, or null if it has none.
+     */
+    public King getKing(final Alliance alliance) {
+        return alliance.isWhite() ? this.whitePieces.getKing() : this.blackPieces.getKing();
+    }
+
     @Override
     public String toString() {
         final StringBuilder builder = new StringBuilder();
         for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = getTile(i).toString();
             builder.append(String.format("%3s", tileText));
             if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
                 builder.append("\n");
@@ -68,80 +156,444 @@ public class Board {
         return builder.toString();
     }
 
-    private Collection<Move> calculateLegalMoves(Collection<Piece> pieces) {
-        final List<Move> legalMoves = new ArrayList<>();
-        for (Piece piece : pieces) {
-            legalMoves.addAll(piece.calculateLegalMoves(this));
+    private List<Move> calculateLegalMoves(final Collection<Piece> pieces,
+                                           final Board parentBoard,
+                                           final long changedTiles,
+                                           final long enPassantNeighbours) {
+        final List<Move> legalMoves = new ArrayList<>(64);
+        for (final Piece piece : pieces) {
+            final int position = piece.getPiecePosition();
+            final int start = legalMoves.size();
+            if (parentBoard != null && !isAffected(piece, parentBoard, changedTiles, enPassantNeighbours)) {
+                final List<Move> parentMoves = piece.getPieceAlliance().isWhite() ?
+                        parentBoard.whiteStandardLegalMoves : parentBoard.blackStandardLegalMoves;
+                final int parentRange = parentBoard.pieceMoveRanges[position];
+                for (int i = parentRange >>> 16; i < (parentRange & 0xFFFF); i++) {
+                    legalMoves.add(parentMoves.get(i).rebase(this));
+                }
+            } else {
+                final Collection<Move> pieceMoves = piece.calculateLegalMoves(this);
+                EngineMetrics.recordMovesGenerated(piece.getPieceType(), pieceMoves.size());
+                legalMoves.addAll(pieceMoves);
+            }
+            this.pieceMoveRanges[position] = start << 16 | legalMoves.size();
         }
         return ImmutableList.copyOf(legalMoves);
     }
 
-    private Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, final Alliance alliance) {
-        final List<Piece> activePieces = new ArrayList<>();
-        for (final Tile tile: gameBoard) {
-            if (tile.isTileOccupied()) {
+    /*
+     * Tells whether a piece's moves on the parent board may differ on this
+     * one: it is a new piece, a tile it looks at changed, or, for a pawn,
+     * an en passant capture beside it appeared or went away. A sliding
+     * piece looks along each ray up to the first piece on the parent board,
+     * so a changed tile behind that piece leaves its moves alone.
+     */
+    private static boolean isAffected(final Piece piece,
+                                      final Board parentBoard,
+                                      final long changedTiles,
+                                      final long enPassantNeighbours) {
+        final int position = piece.getPiecePosition();
+        if (parentBoard.getTile(position).getPiece() != piece) {
+            return true;
+        }
+        switch (piece.getPieceType()) {
+            case KNIGHT:
+                return touches(AttackTables.KNIGHT_ATTACKS[position], changedTiles);
+            case KING:
+                return touches(AttackTables.KING_ATTACKS[position], changedTiles);
+            case PAWN:
+                return (enPassantNeighbours & (1L << position)) != 0 ||
+                        touchesPawnTiles(position, piece.getPieceAlliance(), changedTiles);
+            case BISHOP:
+                return raysTouch(parentBoard, position, AttackTables.ORTHOGONAL_RAYS, 8, changedTiles);
+            case ROOK:
+                return raysTouch(parentBoard, position, 0, AttackTables.ORTHOGONAL_RAYS, changedTiles);
+            case QUEEN:
+                return raysTouch(parentBoard, position, 0, 8, changedTiles);
+            default:
+                return true;
+        }
+    }
+
+    private static boolean touches(final int[] tiles, final long changedTiles) {
+        for (final int tile : tiles) {
+            if ((changedTiles & (1L << tile)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean touchesPawnTiles(final int position, final Alliance alliance, final long changedTiles) {
+        for (final int offset : PAWN_OFFSETS) {
+            final int tile = position + alliance.getDirection() * offset;
+            if (BoardUtils.isValidTileCoordinate(tile) && (changedTiles & (1L << tile)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean raysTouch(final Board parentBoard,
+                                     final int position,
+                                     final int firstRay,
+                                     final int lastRay,
+                                     final long changedTiles) {
+        final int[][] rays = AttackTables.RAYS[position];
+        for (int direction = firstRay; direction < lastRay; direction++) {
+            for (final int tile : rays[direction]) {
+                if ((changedTiles & (1L << tile)) != 0) {
+                    return true;
+                }
+                if (parentBoard.getTile(tile).isTileOccupied()) {
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Tiles beside an en passant pawn on the same row, from where a pawn
+     * could capture it.
+     */
+    private static long enPassantNeighbours(final Pawn enPassantPawn) {
+        if (enPassantPawn == null) {
+            return 0;
+        }
+        final int position = enPassantPawn.getPiecePosition();
+        long neighbours = 0;
+        if (!BoardUtils.FIRST_COLUMN[position]) {
+            neighbours |= 1L << (position - 1);
+        }
+        if (!BoardUtils.EIGHTH_COLUMN[position]) {
+            neighbours |= 1L << (position + 1);
+        }
+        return neighbours;
+    }
+
+    /*
+     * Only a board without a parent scans its tiles; otherwise the parent's
+     * list is shared when the side is untouched, or derived from the changes.
+     */
+    private static PieceList calculateActivePieces(final Builder builder,
+                                                   final Tile[][] gameBoard,
+                                                   final Alliance alliance) {
+        if (builder.parentBoard == null) {
+            return PieceList.of(gameBoard, alliance);
+        }
+        final PieceList parentPieces = alliance.isWhite() ?
+                builder.parentBoard.whitePieces : builder.parentBoard.blackPieces;
+        return builder.isUnchanged(alliance) ? parentPieces : parentPieces.derive(builder.boardConfig, alliance);
+    }
+
+    public Tile getTile(int tileCoordinate) {
+        return this.gameBoard[tileCoordinate / BoardUtils.NUM_TILES_PER_ROW][tileCoordinate % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    /*
+     * Tells whether a piece of the given side attacks the square, by looking
+     * outward from the square along knight jumps, pawn diagonals, king steps
+     * and the eight sliding rays, stopping each ray at its first piece.
+     */
+    public boolean isSquareAttacked(final int square, final Alliance attacker) {
+        return isSquareAttacked(square, attacker, -1);
+    }
+
+    /*
+     * Same, with the ignored square seen as empty, so a king stepping away
+     * from a slider is still attacked on the tile behind it.
+     */
+    private boolean isSquareAttacked(final int square, final Alliance attacker, final int ignoredSquare) {
+        for (final int knightSquare : AttackTables.KNIGHT_ATTACKS[square]) {
+            if (isOccupiedBy(knightSquare, attacker, Piece.PieceType.KNIGHT)) {
+                return true;
+            }
+        }
+        for (final int pawnSquare : AttackTables.pawnAttackers(attacker, square)) {
+            if (isOccupiedBy(pawnSquare, attacker, Piece.PieceType.PAWN)) {
+                return true;
+            }
+        }
+        for (final int kingSquare : AttackTables.KING_ATTACKS[square]) {
+            if (isOccupiedBy(kingSquare, attacker, Piece.PieceType.KING)) {
+                return true;
+            }
+        }
+        final int[][] rays = AttackTables.RAYS[square];
+        for (int direction = 0; direction < rays.length; direction++) {
+            final Piece.PieceType slider = direction < AttackTables.ORTHOGONAL_RAYS ?
+                    Piece.PieceType.ROOK : Piece.PieceType.BISHOP;
+            for (final int raySquare : rays[direction]) {
+                final Tile tile = getTile(raySquare);
+                if (tile.isTileOccupied() && raySquare != ignoredSquare) {
+                    final Piece piece = tile.getPiece();
+                    if (piece.getPieceAlliance() == attacker &&
+                            (piece.getPieceType() == slider || piece.getPieceType() == Piece.PieceType.QUEEN)) {
+                        return true;
+                    }
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Number of the side's standard moves that are legal, found without
+     * playing them; castles are not standard moves.
+     */
+    public int countLegalMoves(final Alliance alliance) {
+        final List<Move> moves = alliance.isWhite() ? this.whiteStandardLegalMoves : this.blackStandardLegalMoves;
+        return countLegalMoves(alliance, moves, 0, moves.size());
+    }
+
+    /*
+     * Number of legal standard moves of a piece on this board, its mobility.
+     */
+    public int countLegalMoves(final Piece piece) {
+        final int position = piece.getPiecePosition();
+        if (getTile(position).getPiece() != piece) {
+            throw new RuntimeException("Piece " + piece + " is not on this board");
+        }
+        final int range = this.pieceMoveRanges[position];
+        return countLegalMoves(piece.getPieceAlliance(),
+                piece.getPieceAlliance().isWhite() ? this.whiteStandardLegalMoves : this.blackStandardLegalMoves,
+                range >>> 16, range & 0xFFFF);
+    }
+
+    /*
+     * Checkers and pins are found by looking outward from the king. A king
+     * move is legal when its destination is not attacked with the king
+     * lifted off; any other move must stay on its pin line and, in check,
+     * capture or block the single checker. En passant captures, which can
+     * uncover the king along the rank, are played out.
+     */
+    private int countLegalMoves(final Alliance alliance, final List<Move> moves, final int from, final int to) {
+        final int kingSquare = getKing(alliance).getPiecePosition();
+        final Alliance opponent = alliance.getOpponent();
+        int checkers = 0;
+        // tiles a move other than the king's must reach to answer a check
+        long checkMask = 0L;
+        long pinned = 0L;
+        for (final int knightSquare : AttackTables.KNIGHT_ATTACKS[kingSquare]) {
+            if (isOccupiedBy(knightSquare, opponent, Piece.PieceType.KNIGHT)) {
+                checkers++;
+                checkMask |= 1L << knightSquare;
+            }
+        }
+        for (final int pawnSquare : AttackTables.pawnAttackers(opponent, kingSquare)) {
+            if (isOccupiedBy(pawnSquare, opponent, Piece.PieceType.PAWN)) {
+                checkers++;
+                checkMask |= 1L << pawnSquare;
+            }
+        }
+        final int[][] rays = AttackTables.RAYS[kingSquare];
+        for (int direction = 0; direction < rays.length; direction++) {
+            final Piece.PieceType slider = direction < AttackTables.ORTHOGONAL_RAYS ?
+                    Piece.PieceType.ROOK : Piece.PieceType.BISHOP;
+            long ray = 0L;
+            int shield = -1;
+            for (final int raySquare : rays[direction]) {
+                ray |= 1L << raySquare;
+                final Tile tile = getTile(raySquare);
+                if (!tile.isTileOccupied()) {
+                    continue;
+                }
                 final Piece piece = tile.getPiece();
                 if (piece.getPieceAlliance() == alliance) {
-                    activePieces.add(piece);
+                    if (shield >= 0) {
+                        break;
+                    }
+                    shield = raySquare;
+                    continue;
+                }
+                if (piece.getPieceType() == slider || piece.getPieceType() == Piece.PieceType.QUEEN) {
+                    if (shield < 0) {
+                        checkers++;
+                        checkMask |= ray;
+                    } else {
+                        pinned |= 1L << shield;
+                    }
                 }
+                break;
             }
         }
-        return ImmutableList.copyOf(activePieces);
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            final Move move = moves.get(i);
+            final int source = move.getCurrentDestination();
+            final int destination = move.getDestinationCoordinate();
+            if (source == kingSquare) {
+                if (!isSquareAttacked(destination, opponent, kingSquare)) {
+                    count++;
+                }
+            } else if (checkers > 1) {
+                continue;
+            } else if (move instanceof Move.PawnEnPassantAttackMove) {
+                final Board transitionBoard = move.execute();
+                if (!transitionBoard.isSquareAttacked(kingSquare, opponent)) {
+                    count++;
+                }
+            } else if ((checkers == 0 || (checkMask & 1L << destination) != 0) &&
+                    ((pinned & 1L << source) == 0 ||
+                            AttackTables.direction(kingSquare, destination) == AttackTables.direction(kingSquare, source))) {
+                count++;
+            }
+        }
+        return count;
     }
 
-    public Tile getTile(int tileCoordinate) {
-        return this.gameBoard.get(tileCoordinate);
+    /*
+     * Exact comparison used to confirm a cache hit: same pieces, castling
+     * rights, side to move and capturable en passant pawn.
+     */
+    private boolean isSamePosition(final Tile[][] tiles,
+                                   final int castlingRights,
+                                   final Alliance moveMaker,
+                                   final Pawn enPassantPawn) {
+        if (this.currentPlayer.getAlliance() != moveMaker || this.castlingRights != castlingRights ||
+                !isSameEnPassantCapture(tiles, moveMaker, enPassantPawn)) {
+            return false;
+        }
+        for (int rank = 0; rank < BoardUtils.NUM_TILES_PER_ROW; rank++) {
+            if (this.gameBoard[rank] == tiles[rank]) {
+                continue;
+            }
+            for (int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++) {
+                final Tile tile = this.gameBoard[rank][file];
+                final Tile other = tiles[rank][file];
+                if (tile.isTileOccupied() != other.isTileOccupied()) {
+                    return false;
+                }
+                if (tile.isTileOccupied() &&
+                        (tile.getPiece().getPieceType() != other.getPiece().getPieceType() ||
+                                tile.getPiece().getPieceAlliance() != other.getPiece().getPieceAlliance())) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
-    private static List<Tile> createGameBoard (final Builder builder) {
-        final Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
+    /*
+     * As in the position key, an en passant pawn only distinguishes positions
+     * when it can be captured.
+     */
+    private boolean isSameEnPassantCapture(final Tile[][] tiles, final Alliance moveMaker, final Pawn enPassantPawn) {
+        final boolean capturable = ZobristKeys.isEnPassantCapturePossible(tiles, moveMaker, enPassantPawn);
+        if (capturable != ZobristKeys.isEnPassantCapturePossible(this.gameBoard, moveMaker, this.enPassantPawn)) {
+            return false;
+        }
+        return !capturable || this.enPassantPawn.getPiecePosition() == enPassantPawn.getPiecePosition();
+    }
+
+    private boolean isOccupiedBy(final int square, final Alliance alliance, final Piece.PieceType pieceType) {
+        final Tile tile = getTile(square);
+        return tile.isTileOccupied() &&
+                tile.getPiece().getPieceAlliance() == alliance &&
+                tile.getPiece().getPieceType() == pieceType;
+    }
+
+    private static long calculateOccupiedTiles(final Builder builder, final Tile[][] gameBoard) {
+        if (builder.parentBoard != null) {
+            long occupiedTiles = builder.parentBoard.occupiedTiles;
+            for (final Map.Entry<Integer, Piece> change : builder.boardConfig.entrySet()) {
+                if (change.getValue() == null) {
+                    occupiedTiles &= ~(1L << change.getKey());
+                } else {
+                    occupiedTiles |= 1L << change.getKey();
+                }
+            }
+            return occupiedTiles;
+        }
+        long occupiedTiles = 0L;
         for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            tiles[i] =Tile.createTile(i,builder.boardConfig.get(i));
+            if (gameBoard[i / BoardUtils.NUM_TILES_PER_ROW][i % BoardUtils.NUM_TILES_PER_ROW].isTileOccupied()) {
+                occupiedTiles |= 1L << i;
+            }
+        }
+        return occupiedTiles;
+    }
+
+    /*
+     * Builds the rank arrays. A board derived from a parent copies only the
+     * ranks holding a changed tile and shares the others.
+     */
+    private static Tile[][] createGameBoard(final Builder builder) {
+        final int rowSize = BoardUtils.NUM_TILES_PER_ROW;
+        if (builder.parentBoard == null) {
+            final Tile[][] ranks = new Tile[rowSize][rowSize];
+            for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                ranks[i / rowSize][i % rowSize] = Tile.createTile(i, builder.boardConfig.get(i));
+            }
+            return ranks;
+        }
+        final Tile[][] ranks = builder.parentBoard.gameBoard.clone();
+        final boolean[] copiedRanks = new boolean[rowSize];
+        for (final Map.Entry<Integer, Piece> change : builder.boardConfig.entrySet()) {
+            final int coordinate = change.getKey();
+            final int rank = coordinate / rowSize;
+            if (!copiedRanks[rank]) {
+                ranks[rank] = ranks[rank].clone();
+                copiedRanks[rank] = true;
+            }
+            ranks[rank][coordinate % rowSize] = Tile.createTile(coordinate, change.getValue());
         }
-        return ImmutableList.copyOf(tiles);
+        return ranks;
     }
 
     public static Board createStandardBoard() {
+        return createStandardBoard(null);
+    }
+
+    /*
+     * Creates the standard board; when a cache is given, it and every board
+     * derived from it by moves are interned in that cache.
+     */
+    public static Board createStandardBoard(final BoardCache boardCache) {
 
         final Builder builder = new Builder();
+        builder.setBoardCache(boardCache);
 
         //Black Layout
-        builder.setPiece(new Rook(0, Alliance.BLACK));
-        builder.setPiece(new Knight(1, Alliance.BLACK));
-        builder.setPiece(new Bishop(2, Alliance.BLACK));
-        builder.setPiece(new Queen(3, Alliance.BLACK));
-        builder.setPiece(new King(4, Alliance.BLACK));
-        builder.setPiece(new Bishop(5, Alliance.BLACK));
-        builder.setPiece(new Knight(6, Alliance.BLACK));
-        builder.setPiece(new Rook(7, Alliance.BLACK));
-        builder.setPiece(new Pawn(8, Alliance.BLACK));
-        builder.setPiece(new Pawn(9, Alliance.BLACK));
-        builder.setPiece(new Pawn(10, Alliance.BLACK));
-        builder.setPiece(new Pawn(11, Alliance.BLACK));
-        builder.setPiece(new Pawn(12, Alliance.BLACK));
-        builder.setPiece(new Pawn(13, Alliance.BLACK));
-        builder.setPiece(new Pawn(14, Alliance.BLACK));
-        builder.setPiece(new Pawn(15, Alliance.BLACK));
+        builder.setPiece(Rook.of(0, Alliance.BLACK));
+        builder.setPiece(Knight.of(1, Alliance.BLACK));
+        builder.setPiece(Bishop.of(2, Alliance.BLACK));
+        builder.setPiece(Queen.of(3, Alliance.BLACK));
+        builder.setPiece(King.of(4, Alliance.BLACK));
+        builder.setPiece(Bishop.of(5, Alliance.BLACK));
+        builder.setPiece(Knight.of(6, Alliance.BLACK));
+        builder.setPiece(Rook.of(7, Alliance.BLACK));
+        builder.setPiece(Pawn.of(8, Alliance.BLACK));
+        builder.setPiece(Pawn.of(9, Alliance.BLACK));
+        builder.setPiece(Pawn.of(10, Alliance.BLACK));
+        builder.setPiece(Pawn.of(11, Alliance.BLACK));
+        builder.setPiece(Pawn.of(12, Alliance.BLACK));
+        builder.setPiece(Pawn.of(13, Alliance.BLACK));
+        builder.setPiece(Pawn.of(14, Alliance.BLACK));
+        builder.setPiece(Pawn.of(15, Alliance.BLACK));
 
         //White Layout
-        builder.setPiece(new Pawn(48, Alliance.WHITE));
-        builder.setPiece(new Pawn(49, Alliance.WHITE));
-        builder.setPiece(new Pawn(50, Alliance.WHITE));
-        builder.setPiece(new Pawn(51, Alliance.WHITE));
-        builder.setPiece(new Pawn(52, Alliance.WHITE));
-        builder.setPiece(new Pawn(53, Alliance.WHITE));
-        builder.setPiece(new Pawn(54, Alliance.WHITE));
-        builder.setPiece(new Pawn(55, Alliance.WHITE));
-        builder.setPiece(new Rook(56, Alliance.WHITE));
-        builder.setPiece(new Knight(57, Alliance.WHITE));
-        builder.setPiece(new Bishop(58, Alliance.WHITE));
-        builder.setPiece(new Queen(59, Alliance.WHITE));
-        builder.setPiece(new King(60, Alliance.WHITE));
-        builder.setPiece(new Bishop(61, Alliance.WHITE));
-        builder.setPiece(new Knight(62, Alliance.WHITE));
-        builder.setPiece(new Rook(63, Alliance.WHITE));
+        builder.setPiece(Pawn.of(48, Alliance.WHITE));
+        builder.setPiece(Pawn.of(49, Alliance.WHITE));
+        builder.setPiece(Pawn.of(50, Alliance.WHITE));
+        builder.setPiece(Pawn.of(51, Alliance.WHITE));
+        builder.setPiece(Pawn.of(52, Alliance.WHITE));
+        builder.setPiece(Pawn.of(53, Alliance.WHITE));
+        builder.setPiece(Pawn.of(54, Alliance.WHITE));
+        builder.setPiece(Pawn.of(55, Alliance.WHITE));
+        builder.setPiece(Rook.of(56, Alliance.WHITE));
+        builder.setPiece(Knight.of(57, Alliance.WHITE));
+        builder.setPiece(Bishop.of(58, Alliance.WHITE));
+        builder.setPiece(Queen.of(59, Alliance.WHITE));
+        builder.setPiece(King.of(60, Alliance.WHITE));
+        builder.setPiece(Bishop.of(61, Alliance.WHITE));
+        builder.setPiece(Knight.of(62, Alliance.WHITE));
+        builder.setPiece(Rook.of(63, Alliance.WHITE));
 
         builder.setNextMoveMaker(Alliance.WHITE);
+        builder.setCastlingRights(CastlingRights.ALL);
 
         return builder.build();
     }
@@ -152,15 +604,29 @@ public class Board {
 
     /*
      * Class used to implement the builder design pattern when instantiating a board.
+     * A builder created from a parent board starts from the parent's position
+     * and only records the tiles that change.
      */
     public static class Builder {
 
         Map<Integer, Piece> boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        BoardCache boardCache;
+        int castlingRights = UNSET_CASTLING_RIGHTS;
+        final Board parentBoard;
+
+        private static final int UNSET_CASTLING_RIGHTS = -1;
 
         public Builder() {
             this.boardConfig = new HashMap<>();
+            this.parentBoard = null;
+        }
+
+        public Builder(final Board parentBoard) {
+            this.boardConfig = new HashMap<>(8);
+            this.parentBoard = parentBoard;
+            this.boardCache = parentBoard.boardCache;
         }
 
         public Builder setPiece(final Piece piece) {
@@ -168,16 +634,131 @@ public class Board {
             return this;
         }
 
+        /*
+         * Returns the piece placed on the tile so far, or null.
+         */
+        public Piece getPiece(final int tileCoordinate) {
+            return this.boardConfig.get(tileCoordinate);
+        }
+
+        /*
+         * Empties a tile of the parent board. Only meaningful for a builder
+         * created from a parent; a later setPiece on the same tile wins.
+         */
+        public Builder clearTile(final int tileCoordinate) {
+            this.boardConfig.put(tileCoordinate, null);
+            return this;
+        }
+
         public Builder setNextMoveMaker(final Alliance nextMoveMaker) {
             this.nextMoveMaker = nextMoveMaker;
             return this;
         }
 
+        /*
+         * Sets the castling rights of a board built from scratch. Rights
+         * whose king or rook is not on its home tile are dropped. Without
+         * this, rights are granted where the king and rook are at home and
+         * have not moved; a builder made from a parent board updates the
+         * parent's rights by the tiles that changed.
+         */
+        public Builder setCastlingRights(final int castlingRights) {
+            this.castlingRights = castlingRights;
+            return this;
+        }
+
+        public Builder setBoardCache(final BoardCache boardCache) {
+            this.boardCache = boardCache;
+            return this;
+        }
+
+        /*
+         * Builds the board, or returns an identical board already held in
+         * the cache, if one is set.
+         */
         public Board build() {
-            return new Board(this);
+            if (this.boardCache == null) {
+                return new Board(this);
+            }
+            final Tile[][] tiles = createGameBoard(this);
+            final int castlingRights = calculateCastlingRights(tiles);
+            final long key = ZobristKeys.standard().hash(tiles, castlingRights, this.nextMoveMaker, this.enPassantPawn);
+            final Board cached = this.boardCache.get(key);
+            final boolean hit = cached != null &&
+                    cached.isSamePosition(tiles, castlingRights, this.nextMoveMaker, this.enPassantPawn);
+            this.boardCache.recordLookup(hit);
+            if (hit) {
+                return cached;
+            }
+            final Board board = new Board(this, tiles, castlingRights, key);
+            this.boardCache.put(key, board);
+            return board;
         }
 
         public void setEnPassantPawn(Pawn movedPawn) {
+            this.enPassantPawn = movedPawn;
+        }
+
+        int calculateCastlingRights(final Tile[][] gameBoard) {
+            if (this.parentBoard != null && this.castlingRights == UNSET_CASTLING_RIGHTS) {
+                int castlingRights = this.parentBoard.castlingRights;
+                for (final Integer coordinate : this.boardConfig.keySet()) {
+                    castlingRights = CastlingRights.update(castlingRights, coordinate);
+                }
+                return castlingRights;
+            }
+            final boolean inferred = this.castlingRights == UNSET_CASTLING_RIGHTS;
+            int castlingRights = CastlingRights.NONE;
+            for (int castle = 0; castle < CastlingRights.CASTLES; castle++) {
+                final Alliance alliance = castle < 2 ? Alliance.WHITE : Alliance.BLACK;
+                if ((inferred || (this.castlingRights & (1 << castle)) != 0) &&
+                        isAtHome(gameBoard, CastlingRights.KING_STARTS[castle], Piece.PieceType.KING, alliance, inferred) &&
+                        isAtHome(gameBoard, CastlingRights.ROOK_STARTS[castle], Piece.PieceType.ROOK, alliance, inferred)) {
+                    castlingRights |= 1 << castle;
+                }
+            }
+            return castlingRights;
+        }
+
+        private static boolean isAtHome(final Tile[][] gameBoard,
+                                        final int tileCoordinate,
+                                        final Piece.PieceType pieceType,
+                                        final Alliance alliance,
+                                        final boolean unmoved) {
+            final Tile tile = gameBoard[tileCoordinate / BoardUtils.NUM_TILES_PER_ROW][tileCoordinate % BoardUtils.NUM_TILES_PER_ROW];
+            return tile.isTileOccupied() &&
+                    tile.getPiece().getPieceType() == pieceType &&
+                    tile.getPiece().getPieceAlliance() == alliance &&
+                    (!unmoved || tile.getPiece().isFirstMove());
+        }
+
+        /*
+         * Tiles set or cleared relative to the parent board, one bit per tile.
+         */
+        long changedTiles() {
+            long changedTiles = 0;
+            for (final Integer coordinate : this.boardConfig.keySet()) {
+                changedTiles |= 1L << coordinate;
+            }
+            return changedTiles;
+        }
+
+        /*
+         * Tells whether no piece of the given side was placed, moved or
+         * captured relative to the parent board.
+         */
+        boolean isUnchanged(final Alliance alliance) {
+            if (this.parentBoard == null) {
+                return false;
+            }
+            for (final Map.Entry<Integer, Piece> change : this.boardConfig.entrySet()) {
+                final Tile parentTile = this.parentBoard.getTile(change.getKey());
+                if ((parentTile.isTileOccupied() && parentTile.getPiece().getPieceAlliance() == alliance) ||
+                        (change.getValue() != null && change.getValue().getPieceAlliance() == alliance)) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 }
@@ -0,0 +1,162 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Class interning immutable boards by position hash so that workloads
+ * reaching the same positions again (openings across many games, for
+ * example) reuse the board, its players and legal moves instead of
+ * constructing them again. The cache holds a fixed number of boards and
+ * evicts with the CLOCK algorithm: every hit marks the slot, and the hand
+ * clears marks until it finds an unmarked slot to reuse.
+ *
+ * Boards are opted in by creating them with a cache (see
+ * Board.createStandardBoard(BoardCache) and Builder.setBoardCache); boards
+ * derived from them by moves use the same cache. Access is synchronized.
+ */
+public final class BoardCache {
+
+    // rough retained sizes on a 64 bit VM with compressed pointers
+    private static final long BOARD_BYTES = 200;
+    private static final long RANK_BYTES = 48;
+    private static final long MOVE_BYTES = 32;
+    private static final long PIECE_BYTES = 56;
+
+    private final long[] keys;
+    private final Board[] boards;
+    private final long[] sizes;
+    private final boolean[] referenced;
+    private final Map<Long, Integer> slots;
+    private int hand;
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long estimatedBytes;
+
+    public BoardCache(final int capacity) {
+        if (capacity <= 0) {
+            throw new RuntimeException("Cache capacity must be positive, was " + capacity);
+        }
+        this.keys = new long[capacity];
+        this.boards = new Board[capacity];
+        this.sizes = new long[capacity];
+        this.referenced = new boolean[capacity];
+        this.slots = new HashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    synchronized Board get(final long key) {
+        final Integer slot = this.slots.get(key);
+        if (slot == null) {
+            return null;
+        }
+        this.referenced[slot] = true;
+        return this.boards[slot];
+    }
+
+    /*
+     * A board found under the key only counts as a hit once the caller has
+     * verified it is the same position.
+     */
+    synchronized void recordLookup(final boolean hit) {
+        if (hit) {
+            this.hits++;
+        } else {
+            this.misses++;
+        }
+    }
+
+    synchronized void put(final long key, final Board board) {
+        Integer slot = this.slots.get(key);
+        if (slot == null) {
+            if (this.size < this.boards.length) {
+                slot = this.size++;
+            } else {
+                slot = nextVictim();
+                this.slots.remove(this.keys[slot]);
+                this.estimatedBytes -= this.sizes[slot];
+                this.evictions++;
+            }
+            this.slots.put(key, slot);
+        } else {
+            this.estimatedBytes -= this.sizes[slot];
+        }
+        this.keys[slot] = key;
+        this.boards[slot] = board;
+        this.sizes[slot] = estimateSize(board);
+        this.referenced[slot] = false;
+        this.estimatedBytes += this.sizes[slot];
+    }
+
+    private int nextVictim() {
+        while (this.referenced[this.hand]) {
+            this.referenced[this.hand] = false;
+            this.hand = (this.hand + 1) % this.boards.length;
+        }
+        final int victim = this.hand;
+        this.hand = (this.hand + 1) % this.boards.length;
+        return victim;
+    }
+
+    public synchronized void clear() {
+        this.slots.clear();
+        Arrays.fill(this.boards, null);
+        Arrays.fill(this.referenced, false);
+        this.size = 0;
+        this.hand = 0;
+        this.estimatedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+
+    public int capacity() {
+        return this.boards.length;
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /*
+     * Lookups that found no board, or a board for a different position
+     * under the same key.
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    public synchronized double getHitRate() {
+        final long lookups = this.hits + getMisses();
+        return lookups == 0 ? 0.0 : (double) this.hits / lookups;
+    }
+
+    /*
+     * Approximate bytes retained by the cached boards. Ranks and piece lists
+     * shared between boards are counted once per board, so this is an
+     * upper bound.
+     */
+    public synchronized long getEstimatedMemoryBytes() {
+        return this.estimatedBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("size=%d/%d hits=%d misses=%d hitRate=%.3f evictions=%d memory=%dKB",
+                this.size, this.boards.length, this.hits, getMisses(), getHitRate(), this.evictions,
+                this.estimatedBytes >> 10);
+    }
+
+    private static long estimateSize(final Board board) {
+        final int moves = board.whitePlayer().getLegalMoves().size() + board.blackPlayer().getLegalMoves().size();
+        final int pieces = board.getWhitePieces().size() + board.getBlackPieces().size();
+        return BOARD_BYTES + BoardUtils.NUM_TILES_PER_ROW * RANK_BYTES + moves * MOVE_BYTES + pieces * PIECE_BYTES;
+    }
+}
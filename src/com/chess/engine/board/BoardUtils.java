@@ -6,15 +6,19 @@ package com.chess.engine.board;
 public class BoardUtils {
 
     public static final boolean[] FIRST_COLUMN = initColumn(0);
-    public static final boolean[] SECOND_COLUMN = initColumn(2);
-    public static final boolean[] SEVENTH_COLUMN = initColumn(7);
-    public static final boolean[] EIGHTH_COLUMN = initColumn(8);
+    public static final boolean[] SECOND_COLUMN = initColumn(1);
+    public static final boolean[] SEVENTH_COLUMN = initColumn(6);
+    public static final boolean[] EIGHTH_COLUMN = initColumn(7);
+    public static final boolean[] FIRST_ROW = initRow(0);
     public static final boolean[] SECOND_ROW = initRow(8);
     public static final boolean[] SEVENTH_ROW = initRow(48);
+    public static final boolean[] EIGHTH_ROW = initRow(56);
 
     public static final int NUM_TILES = 64;
     public static final int NUM_TILES_PER_ROW = 8;
 
+    public static final String[] ALGEBRAIC_NOTATION = initAlgebraicNotation();
+
     public BoardUtils() {
         throw new RuntimeException("You cant instantiate a Utility Class.");
     }
@@ -37,7 +41,31 @@ public class BoardUtils {
         return row;
     }
 
+    private static String[] initAlgebraicNotation() {
+        final String[] notation = new String[NUM_TILES];
+        for (int i = 0; i < NUM_TILES; i++) {
+            notation[i] = "" + (char) ('a' + i % NUM_TILES_PER_ROW) + (NUM_TILES_PER_ROW - i / NUM_TILES_PER_ROW);
+        }
+        return notation;
+    }
+
     public static boolean isValidTileCoordinate(final int coordinate) {
         return coordinate >= 0 && coordinate < NUM_TILES;
     }
+
+    public static String getPositionAtCoordinate(final int coordinate) {
+        return ALGEBRAIC_NOTATION[coordinate];
+    }
+
+    public static int getCoordinateAtPosition(final String position) {
+        if (position.length() != 2) {
+            throw new RuntimeException("Invalid position " + position);
+        }
+        final int file = position.charAt(0) - 'a';
+        final int rank = position.charAt(1) - '1';
+        if (file < 0 || file >= NUM_TILES_PER_ROW || rank < 0 || rank >= NUM_TILES_PER_ROW) {
+            throw new RuntimeException("Invalid position " + position);
+        }
+        return (NUM_TILES_PER_ROW - 1 - rank) * NUM_TILES_PER_ROW + file;
+    }
 }
@@ -0,0 +1,115 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+
+import java.util.Arrays;
+
+/*
+ * Class describing castling rights as a 4-bit mask, one bit per castle in
+ * Polyglot order: white king side, white queen side, black king side,
+ * black queen side. A move keeps only the rights allowed by the update
+ * masks of the tiles it changes, so moving or capturing a king or rook on
+ * its home tile drops the matching rights.
+ *
+ * Each castle comes with precomputed tiles: the king and rook moves, the
+ * tiles that must be empty and the tiles the king crosses that must not be
+ * attacked.
+ */
+public final class CastlingRights {
+
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 1 << 1;
+    public static final int BLACK_KING_SIDE = 1 << 2;
+    public static final int BLACK_QUEEN_SIDE = 1 << 3;
+    public static final int NONE = 0;
+    public static final int ALL = WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+
+    public static final int CASTLES = 4;
+
+    public static final int[] KING_STARTS = {60, 60, 4, 4};
+    public static final int[] KING_DESTINATIONS = {62, 58, 6, 2};
+    public static final int[] ROOK_STARTS = {63, 56, 7, 0};
+    public static final int[] ROOK_DESTINATIONS = {61, 59, 5, 3};
+
+    // tiles between king and rook
+    public static final long[] EMPTY_PATHS = {
+            tiles(61, 62), tiles(57, 58, 59), tiles(5, 6), tiles(1, 2, 3)};
+    // tiles the king passes through or lands on
+    public static final long[] SAFE_PATHS = {
+            tiles(61, 62), tiles(58, 59), tiles(5, 6), tiles(2, 3)};
+
+    private static final int[] UPDATE_MASKS = initUpdateMasks();
+
+    private CastlingRights() {
+        throw new RuntimeException("You cant instantiate a Utility Class.");
+    }
+
+    public static int of(final Alliance alliance) {
+        return alliance.isWhite() ? WHITE_KING_SIDE | WHITE_QUEEN_SIDE : BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+    }
+
+    public static boolean isKingSide(final int castle) {
+        return castle % 2 == 0;
+    }
+
+    /*
+     * Rights left after a piece leaves or arrives on the tile.
+     */
+    public static int update(final int castlingRights, final int tileCoordinate) {
+        return castlingRights & UPDATE_MASKS[tileCoordinate];
+    }
+
+    public static int fromFen(final String castling) {
+        int castlingRights = NONE;
+        for (final char c : castling.toCharArray()) {
+            switch (c) {
+                case 'K':
+                    castlingRights |= WHITE_KING_SIDE;
+                    break;
+                case 'Q':
+                    castlingRights |= WHITE_QUEEN_SIDE;
+                    break;
+                case 'k':
+                    castlingRights |= BLACK_KING_SIDE;
+                    break;
+                case 'q':
+                    castlingRights |= BLACK_QUEEN_SIDE;
+                    break;
+                case '-':
+                    break;
+                default:
+                    throw new RuntimeException("Invalid FEN castling rights: " + castling);
+            }
+        }
+        return castlingRights;
+    }
+
+    public static String toFen(final int castlingRights) {
+        final StringBuilder text = new StringBuilder();
+        final String letters = "KQkq";
+        for (int castle = 0; castle < CASTLES; castle++) {
+            if ((castlingRights & (1 << castle)) != 0) {
+                text.append(letters.charAt(castle));
+            }
+        }
+        return text.length() == 0 ? "-" : text.toString();
+    }
+
+    private static int[] initUpdateMasks() {
+        final int[] masks = new int[BoardUtils.NUM_TILES];
+        Arrays.fill(masks, ALL);
+        for (int castle = 0; castle < CASTLES; castle++) {
+            masks[KING_STARTS[castle]] &= ~(1 << castle);
+            masks[ROOK_STARTS[castle]] &= ~(1 << castle);
+        }
+        return masks;
+    }
+
+    private static long tiles(final int... tileCoordinates) {
+        long mask = 0L;
+        for (final int tileCoordinate : tileCoordinates) {
+            mask |= 1L << tileCoordinate;
+        }
+        return mask;
+    }
+}
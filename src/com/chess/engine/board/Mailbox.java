@@ -0,0 +1,76 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+
+/*
+ * Class mapping tiles onto a 10x12 mailbox: the 8x8 board framed by one
+ * sentinel file on each side and two sentinel ranks above and below, so a
+ * knight jump or a sliding step off the board always lands on a sentinel.
+ * Piece generators walk in mailbox squares and stop at OFF_BOARD, with no
+ * column or range tests. Offsets below are in mailbox squares; a row is
+ * MAILBOX_WIDTH squares, so +10 is one row towards the white side.
+ */
+public final class Mailbox {
+
+    public static final int OFF_BOARD = -1;
+
+    public static final int[] KNIGHT_OFFSETS = {-21, -19, -12, -8, 8, 12, 19, 21};
+    public static final int[] KING_OFFSETS = {-11, -10, -9, -1, 1, 9, 10, 11};
+    public static final int[] BISHOP_OFFSETS = {-11, -9, 9, 11};
+    public static final int[] ROOK_OFFSETS = {-10, -1, 1, 10};
+    public static final int[] QUEEN_OFFSETS = KING_OFFSETS;
+
+    private static final int MAILBOX_WIDTH = 10;
+    private static final int MAILBOX_SIZE = 120;
+    // mailbox square of tile 0 (a8): two sentinel rows and one sentinel file in
+    private static final int FIRST_SQUARE = 2 * MAILBOX_WIDTH + 1;
+
+    private static final int[] TILES = initTiles();
+    private static final int[] SQUARES = initSquares();
+
+    private Mailbox() {
+        throw new RuntimeException("You cant instantiate a Utility Class.");
+    }
+
+    /*
+     * Mailbox square of a tile.
+     */
+    public static int toSquare(final int tileCoordinate) {
+        return SQUARES[tileCoordinate];
+    }
+
+    /*
+     * Tile of a mailbox square, or OFF_BOARD for a sentinel.
+     */
+    public static int toTile(final int square) {
+        return TILES[square];
+    }
+
+    /*
+     * Tile reached from the given tile by a mailbox offset, or OFF_BOARD.
+     */
+    public static int step(final int tileCoordinate, final int offset) {
+        return TILES[SQUARES[tileCoordinate] + offset];
+    }
+
+    private static int[] initTiles() {
+        final int[] tiles = new int[MAILBOX_SIZE];
+        Arrays.fill(tiles, OFF_BOARD);
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            tiles[square(tile)] = tile;
+        }
+        return tiles;
+    }
+
+    private static int[] initSquares() {
+        final int[] squares = new int[BoardUtils.NUM_TILES];
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            squares[tile] = square(tile);
+        }
+        return squares;
+    }
+
+    private static int square(final int tile) {
+        return FIRST_SQUARE + tile / BoardUtils.NUM_TILES_PER_ROW * MAILBOX_WIDTH + tile % BoardUtils.NUM_TILES_PER_ROW;
+    }
+}
@@ -1,5 +1,6 @@
 package com.chess.engine.board;
 
+import com.chess.engine.metrics.EngineMetrics;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.Rook;
@@ -30,29 +31,22 @@ public abstract class Move {
     }
 
     public Board execute() {
-
-        final Builder builder = new Builder();
-
-        // set active pieces
-        for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-            if (!this.movedPiece.equals(piece)) {
-                // TODO: hashcode && equals for piece
-                builder.setPiece(piece);
-            }
-        }
-
-        // set opponent pieces
-        for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-            builder.setPiece(piece);
-        }
-
-        // set moved piece and change moveMaker
-        builder.setPiece(this.movedPiece.movePiece(this));
-        builder.setNextMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
-
-        return builder.build();
+        EngineMetrics.recordMoveExecuted();
+        // vacate the origin, place the moved piece (over any captured piece) and change moveMaker
+        return new Builder(this.board)
+                .clearTile(this.getCurrentDestination())
+                .setPiece(this.movedPiece.movePiece(this))
+                .setNextMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
+                .build();
     }
 
+    /*
+     * The same move made from another board on which the moved piece, the
+     * destination and everything the move depends on are unchanged. Lets a
+     * board reuse its parent's moves for pieces the last move did not affect.
+     */
+    abstract Move rebase(Board board);
+
     public boolean isAttackMove() {
         return false;
     }
@@ -83,10 +77,15 @@ public abstract class Move {
             return false;
         }
         final Move otherMove = (Move) other;
-        return this.getDestinationCoordinate() == otherMove.getDestinationCoordinate() &&
+        return this.getCurrentDestination() == otherMove.getCurrentDestination() &&
+                this.getDestinationCoordinate() == otherMove.getDestinationCoordinate() &&
                 this.getMovedPiece().equals(otherMove.getMovedPiece());
     }
 
+    public Board getBoard() {
+        return this.board;
+    }
+
     public Piece getMovedPiece() {
         return this.movedPiece;
     }
@@ -105,6 +104,11 @@ public abstract class Move {
                            final int destinationCoordinate) {
             super(board, piece, destinationCoordinate);
         }
+
+        @Override
+        Move rebase(final Board board) {
+            return new RegularMove(board, this.movedPiece, this.destinationCoordinate);
+        }
     }
 
     public static class AttackMove extends Move {
@@ -119,8 +123,8 @@ public abstract class Move {
         }
 
         @Override
-        public Board execute() {
-            return null;
+        Move rebase(final Board board) {
+            return new AttackMove(board, this.movedPiece, this.destinationCoordinate, this.attackedPiece);
         }
 
         @Override
@@ -158,6 +162,11 @@ public abstract class Move {
                         final int destinationCoordinate) {
             super(board, piece, destinationCoordinate);
         }
+
+        @Override
+        Move rebase(final Board board) {
+            return new PawnMove(board, this.movedPiece, this.destinationCoordinate);
+        }
     }
 
     public static final class PawnAttackMove extends AttackMove {
@@ -167,6 +176,11 @@ public abstract class Move {
                               final Piece attackedPiece) {
             super(board, piece, destinationCoordinate, attackedPiece);
         }
+
+        @Override
+        Move rebase(final Board board) {
+            return new PawnAttackMove(board, this.movedPiece, this.destinationCoordinate, this.attackedPiece);
+        }
     }
 
     public static final class PawnEnPassantAttackMove extends AttackMove {
@@ -176,6 +190,86 @@ public abstract class Move {
                                        final Piece attackedPiece) {
             super(board, piece, destinationCoordinate, attackedPiece);
         }
+
+        @Override
+        Move rebase(final Board board) {
+            return new PawnEnPassantAttackMove(board, this.movedPiece, this.destinationCoordinate, this.attackedPiece);
+        }
+
+        @Override
+        public Board execute() {
+            EngineMetrics.recordMoveExecuted();
+            // the captured pawn is not on the destination tile
+            return new Builder(this.board)
+                    .clearTile(this.getCurrentDestination())
+                    .clearTile(this.getAttackedPiece().getPiecePosition())
+                    .setPiece(this.movedPiece.movePiece(this))
+                    .setNextMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
+                    .build();
+        }
+    }
+
+    /*
+     * Class decorating a pawn move or pawn attack that reaches the last row
+     * with the piece the pawn is promoted to.
+     */
+    public static final class PawnPromotion extends Move {
+
+        final Move decoratedMove;
+        final Piece promotionPiece;
+
+        public PawnPromotion(final Move decoratedMove, final Piece promotionPiece) {
+            super(decoratedMove.getBoard(), decoratedMove.getMovedPiece(), decoratedMove.getDestinationCoordinate());
+            this.decoratedMove = decoratedMove;
+            this.promotionPiece = promotionPiece;
+        }
+
+        @Override
+        Move rebase(final Board board) {
+            return new PawnPromotion(this.decoratedMove.rebase(board), this.promotionPiece);
+        }
+
+        @Override
+        public Board execute() {
+            EngineMetrics.recordMoveExecuted();
+            return new Builder(this.board)
+                    .clearTile(this.getCurrentDestination())
+                    .setPiece(this.promotionPiece)
+                    .setNextMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
+                    .build();
+        }
+
+        @Override
+        public boolean isAttack() {
+            return this.decoratedMove.isAttack();
+        }
+
+        @Override
+        public Piece getAttackedPiece() {
+            return this.decoratedMove.getAttackedPiece();
+        }
+
+        public Piece getPromotionPiece() {
+            return this.promotionPiece;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.decoratedMove.hashCode() + this.promotionPiece.getPieceType().hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof PawnPromotion)) {
+                return false;
+            }
+            final PawnPromotion otherPromotion = (PawnPromotion) other;
+            return this.decoratedMove.equals(otherPromotion.decoratedMove) &&
+                    this.promotionPiece.getPieceType() == otherPromotion.promotionPiece.getPieceType();
+        }
     }
 
     public static final class PawnJump extends Move {
@@ -185,19 +279,16 @@ public abstract class Move {
             super(board, piece, destinationCoordinate);
         }
 
+        @Override
+        Move rebase(final Board board) {
+            return new PawnJump(board, this.movedPiece, this.destinationCoordinate);
+        }
+
         @Override
         public Board execute() {
-            Builder builder = new Builder();
-            // set other active pieces
-            for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-                if (!(this.movedPiece.equals(piece))) {
-                    builder.setPiece(piece);
-                }
-            }
-            // set opponent piece
-            for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-                builder.setPiece(piece);
-            }
+            EngineMetrics.recordMoveExecuted();
+            final Builder builder = new Builder(this.board);
+            builder.clearTile(this.getCurrentDestination());
             // set moved Pawn, EnPassant Pawn & change moveMoker
             final Pawn movedPawn = (Pawn) this.movedPiece.movePiece(this);
             builder.setPiece(movedPawn);
@@ -207,7 +298,7 @@ public abstract class Move {
         }
     }
 
-    static abstract class CastleMove extends Move {
+    public static abstract class CastleMove extends Move {
 
         protected final Rook castleRook;
         protected final int castleRookStart;
@@ -229,6 +320,14 @@ public abstract class Move {
             return this.castleRook;
         }
 
+        public int getCastleRookStart() {
+            return this.castleRookStart;
+        }
+
+        public int getCastleRookDestination() {
+            return this.castleRookDestination;
+        }
+
         @Override
         public boolean isCastlingMove() {
             return true;
@@ -236,22 +335,13 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            final Builder builder = new Builder();
-            // set active pieces
-            for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-                if (!(this.movedPiece.equals(piece) && this.castleRook.equals(piece))) {
-                    // TODO: hashcode && equals for piece
-                    builder.setPiece(piece);
-                }
-            }
-            // set opponent pieces
-            for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-                builder.setPiece(piece);
-            }
+            EngineMetrics.recordMoveExecuted();
+            final Builder builder = new Builder(this.board);
+            builder.clearTile(this.getCurrentDestination());
+            builder.clearTile(this.castleRookStart);
             // set moved piece and change moveMaker
             builder.setPiece(this.movedPiece.movePiece(this));
-            // TODO: look into first move on normal pieces
-            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceAlliance()));
+            builder.setPiece(Rook.of(this.castleRookDestination, this.castleRook.getPieceAlliance(), false));
             builder.setNextMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
             return builder.build();
         }
@@ -267,6 +357,12 @@ public abstract class Move {
             super(board, piece, destinationCoordinate, castleRook, castleRookStart, castleRookDestination);
         }
 
+        @Override
+        Move rebase(final Board board) {
+            return new KingSideCastleMove(board, this.movedPiece, this.destinationCoordinate, this.castleRook,
+                    this.castleRookStart, this.castleRookDestination);
+        }
+
         @Override
         public String toString() {
             return "0-0";
@@ -282,6 +378,13 @@ public abstract class Move {
                                    final int castleRookDestination) {
             super(board, piece, destinationCoordinate, castleRook, castleRookStart, castleRookDestination);
         }
+
+        @Override
+        Move rebase(final Board board) {
+            return new QueenSideCastleMove(board, this.movedPiece, this.destinationCoordinate, this.castleRook,
+                    this.castleRookStart, this.castleRookDestination);
+        }
+
         @Override
         public String toString() {
             return "0-0-0";
@@ -293,6 +396,11 @@ public abstract class Move {
             super(null, null, -1);
         }
 
+        @Override
+        Move rebase(final Board board) {
+            return this;
+        }
+
         @Override
         public Board execute() {
             throw new RuntimeException("Cannot execute a null move!");
@@ -318,5 +426,9 @@ public abstract class Move {
 
             return NULL_MOVE;
         }
+
+        public static Move getNullMove() {
+            return NULL_MOVE;
+        }
     }
 }
@@ -0,0 +1,102 @@
+package com.chess.engine.board;
+
+import com.chess.engine.board.Move.MoveFactory;
+
+/*
+ * Class translating moves to and from compact 16-bit codes and coordinate
+ * notation such as "e2e4" or "e7e8q". Both forms identify a move by its
+ * squares and promotion piece only, so they can be stored without keeping
+ * the board the move was generated on.
+ */
+public class MoveUtils {
+
+    public static final int NULL_MOVE_CODE = 0;
+
+    private MoveUtils() {
+        throw new RuntimeException("You cant instantiate a Utility Class.");
+    }
+
+    /*
+     * Packs current square (6 bits), destination square (6 bits) and the
+     * promotion piece (3 bits: none, knight, bishop, rook, queen).
+     */
+    public static int encode(final Move move) {
+        if (move == MoveFactory.getNullMove()) {
+            return NULL_MOVE_CODE;
+        }
+        return move.getCurrentDestination() |
+                move.getDestinationCoordinate() << 6 |
+                promotionCode(move) << 12;
+    }
+
+    public static int currentCoordinate(final int moveCode) {
+        return moveCode & 63;
+    }
+
+    public static int destinationCoordinate(final int moveCode) {
+        return (moveCode >>> 6) & 63;
+    }
+
+    /*
+     * Finds the legal move of the side to move with the given code, or the
+     * null move.
+     */
+    public static Move decode(final Board board, final int moveCode) {
+        if (moveCode == NULL_MOVE_CODE) {
+            return MoveFactory.getNullMove();
+        }
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (encode(move) == moveCode) {
+                return move;
+            }
+        }
+        return MoveFactory.getNullMove();
+    }
+
+    public static String toCoordinateNotation(final Move move) {
+        final String notation = BoardUtils.getPositionAtCoordinate(move.getCurrentDestination()) +
+                BoardUtils.getPositionAtCoordinate(move.getDestinationCoordinate());
+        if (move instanceof Move.PawnPromotion) {
+            return notation + ((Move.PawnPromotion) move).getPromotionPiece().toString().toLowerCase();
+        }
+        return notation;
+    }
+
+    public static Move fromCoordinateNotation(final Board board, final String notation) {
+        if (notation.length() < 4 || notation.length() > 5) {
+            return MoveFactory.getNullMove();
+        }
+        final int current;
+        final int destination;
+        try {
+            current = BoardUtils.getCoordinateAtPosition(notation.substring(0, 2));
+            destination = BoardUtils.getCoordinateAtPosition(notation.substring(2, 4));
+        } catch (final RuntimeException e) {
+            return MoveFactory.getNullMove();
+        }
+        final int promotion = notation.length() == 5 ? promotionCode(Character.toUpperCase(notation.charAt(4))) : 0;
+        return decode(board, current | destination << 6 | promotion << 12);
+    }
+
+    private static int promotionCode(final Move move) {
+        if (move instanceof Move.PawnPromotion) {
+            return promotionCode(((Move.PawnPromotion) move).getPromotionPiece().getPieceType().toString().charAt(0));
+        }
+        return 0;
+    }
+
+    private static int promotionCode(final char pieceLetter) {
+        switch (pieceLetter) {
+            case 'N':
+                return 1;
+            case 'B':
+                return 2;
+            case 'R':
+                return 3;
+            case 'Q':
+                return 4;
+            default:
+                return 7;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Piece;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/*
+ * Class holding the pieces of one side as a dense array with a tile to
+ * slot index, plus that side's king. A board made by a move derives its
+ * lists from the parent's, touching only the slots of the tiles the move
+ * changed, instead of scanning the 64 tiles. Read-only once its board is
+ * built.
+ */
+final class PieceList extends AbstractList<Piece> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Piece[] pieces;
+    // slot of the piece on each tile plus one, 0 for none
+    private final byte[] slots;
+    private int size;
+    private King king;
+
+    private PieceList(final Piece[] pieces, final byte[] slots, final int size, final King king) {
+        this.pieces = pieces;
+        this.slots = slots;
+        this.size = size;
+        this.king = king;
+    }
+
+    static PieceList of(final Tile[][] gameBoard, final Alliance alliance) {
+        final PieceList pieceList = new PieceList(new Piece[INITIAL_CAPACITY], new byte[BoardUtils.NUM_TILES], 0, null);
+        for (final Tile[] rank : gameBoard) {
+            for (final Tile tile : rank) {
+                if (tile.isTileOccupied() && tile.getPiece().getPieceAlliance() == alliance) {
+                    pieceList.append(tile.getPiece());
+                }
+            }
+        }
+        return pieceList;
+    }
+
+    /*
+     * The parent's list with the given tile changes applied. A piece
+     * arriving for the side takes the slot of one that left where possible,
+     * so a plain move keeps the order of the list.
+     */
+    PieceList derive(final Map<Integer, Piece> changes, final Alliance alliance) {
+        final PieceList pieceList = new PieceList(this.pieces.clone(), this.slots.clone(), this.size, this.king);
+        int freeSlots = 0;
+        final int[] free = new int[changes.size()];
+        for (final Integer coordinate : changes.keySet()) {
+            final int slot = pieceList.slots[coordinate] - 1;
+            if (slot >= 0) {
+                pieceList.slots[coordinate] = 0;
+                pieceList.pieces[slot] = null;
+                free[freeSlots++] = slot;
+            }
+        }
+        for (final Piece piece : changes.values()) {
+            if (piece != null && piece.getPieceAlliance() == alliance) {
+                if (freeSlots > 0) {
+                    pieceList.put(free[--freeSlots], piece);
+                } else {
+                    pieceList.append(piece);
+                }
+            }
+        }
+        Arrays.sort(free, 0, freeSlots);
+        while (freeSlots > 0) {
+            pieceList.removeSlot(free[--freeSlots]);
+        }
+        if (pieceList.king != null && pieceList.slots[pieceList.king.getPiecePosition()] == 0) {
+            pieceList.king = null;
+        }
+        return pieceList;
+    }
+
+    King getKing() {
+        return this.king;
+    }
+
+    @Override
+    public Piece get(final int index) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+        }
+        return this.pieces[index];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    private void append(final Piece piece) {
+        if (this.size == this.pieces.length) {
+            final Piece[] grown = new Piece[2 * this.pieces.length];
+            System.arraycopy(this.pieces, 0, grown, 0, this.size);
+            this.pieces = grown;
+        }
+        put(this.size++, piece);
+    }
+
+    private void put(final int slot, final Piece piece) {
+        this.pieces[slot] = piece;
+        this.slots[piece.getPiecePosition()] = (byte) (slot + 1);
+        if (piece.getPieceType() == Piece.PieceType.KING) {
+            this.king = (King) piece;
+        }
+    }
+
+    /*
+     * Fills an emptied slot with the last piece. Free slots are removed
+     * highest first, so the last piece is never itself a free slot.
+     */
+    private void removeSlot(final int slot) {
+        final int last = --this.size;
+        if (slot != last) {
+            put(slot, this.pieces[last]);
+        }
+        this.pieces[last] = null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+
+/*
+ * Class recording the hash keys of the positions of a game (or of a search
+ * line) in a preallocated ring buffer, together with the halfmove clock of
+ * each position. Repetition checks only scan back as far as the last pawn
+ * move or capture, since no earlier position can recur. Nothing is
+ * allocated after construction.
+ */
+public final class PositionHistory {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int FIFTY_MOVE_PLIES = 100;
+
+    private final long[] keys;
+    private final int[] halfmoveClocks;
+    private final int mask;
+    private int size;
+
+    public PositionHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /*
+     * The capacity is rounded up to a power of two. Only the most recent
+     * 'capacity' positions are kept, which is plenty since the reversible
+     * window never exceeds a hundred plies in a game that is still going.
+     */
+    public PositionHistory(final int capacity) {
+        final int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.keys = new long[size];
+        this.halfmoveClocks = new int[size];
+        this.mask = size - 1;
+    }
+
+    public PositionHistory(final Board initialBoard) {
+        this();
+        reset(initialBoard, 0);
+    }
+
+    public void reset(final Board board, final int halfmoveClock) {
+        this.size = 0;
+        push(board.getZobristHash(), halfmoveClock);
+    }
+
+    public void push(final long key, final int halfmoveClock) {
+        this.keys[this.size & this.mask] = key;
+        this.halfmoveClocks[this.size & this.mask] = halfmoveClock;
+        this.size++;
+    }
+
+    /*
+     * Records the position reached by the given move. The halfmove clock
+     * restarts on pawn moves and captures.
+     */
+    public void push(final Move move, final Board transitionBoard) {
+        final boolean isIrreversible = move.isAttack() ||
+                move.getMovedPiece().getPieceType() == Piece.PieceType.PAWN;
+        push(transitionBoard.getZobristHash(), isIrreversible ? 0 : getHalfmoveClock() + 1);
+    }
+
+    public void pop() {
+        if (this.size <= 1) {
+            throw new RuntimeException("Cannot pop the initial position.");
+        }
+        this.size--;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public long getCurrentKey() {
+        return this.keys[(this.size - 1) & this.mask];
+    }
+
+    public int getHalfmoveClock() {
+        return this.size == 0 ? 0 : this.halfmoveClocks[(this.size - 1) & this.mask];
+    }
+
+    /*
+     * Counts earlier occurrences of the current position. Only positions with
+     * the same side to move, inside the reversible window, are compared.
+     */
+    public int countRepetitions() {
+        final long currentKey = getCurrentKey();
+        final int window = Math.min(getHalfmoveClock(), Math.min(this.size - 1, this.mask));
+        int repetitions = 0;
+        for (int ply = 4; ply <= window; ply += 2) {
+            if (this.keys[(this.size - 1 - ply) & this.mask] == currentKey) {
+                repetitions++;
+            }
+        }
+        return repetitions;
+    }
+
+    /*
+     * Search treats a single repetition as a draw, since the side that could
+     * avoid it would already have done so.
+     */
+    public boolean isRepetition() {
+        final long currentKey = getCurrentKey();
+        final int window = Math.min(getHalfmoveClock(), Math.min(this.size - 1, this.mask));
+        for (int ply = 4; ply <= window; ply += 2) {
+            if (this.keys[(this.size - 1 - ply) & this.mask] == currentKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isThreefoldRepetition() {
+        return countRepetitions() >= 2;
+    }
+
+    public boolean isFiftyMoveRule() {
+        return getHalfmoveClock() >= FIFTY_MOVE_PLIES;
+    }
+
+    public boolean isDraw() {
+        return isFiftyMoveRule() || isThreefoldRepetition();
+    }
+}
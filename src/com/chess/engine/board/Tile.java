@@ -1,10 +1,7 @@
 package com.chess.engine.board;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.pieces.Piece;
-import com.google.common.collect.ImmutableMap;
-
-import java.util.HashMap;
-import java.util.Map;
 
 import static com.chess.engine.board.BoardUtils.NUM_TILES;
 
@@ -16,21 +13,41 @@ public abstract class Tile {
 
     protected final int tileCoordinate;
 
-    private static final Map<Integer, EmptyTile> EMPTY_TILES_CACHE = createAllPossibleEmptyTiles();
+    private static final EmptyTile[] EMPTY_TILES_CACHE = createAllPossibleEmptyTiles();
+    // one tile per pooled piece, indexed by the piece's pool index
+    private static final OccupiedTile[] OCCUPIED_TILES_CACHE = createAllPossibleOccupiedTiles();
 
-    private static Map<Integer,EmptyTile> createAllPossibleEmptyTiles() {
+    private static EmptyTile[] createAllPossibleEmptyTiles() {
 
-        final Map<Integer, EmptyTile> emptyTileMap = new HashMap<>();
+        final EmptyTile[] emptyTiles = new EmptyTile[NUM_TILES];
 
         for(int i = 0; i <NUM_TILES; i++) {
-            emptyTileMap.put(i, new EmptyTile(i));
+            emptyTiles[i] = new EmptyTile(i);
         }
 
-        return ImmutableMap.copyOf(emptyTileMap);
+        return emptyTiles;
+    }
+
+    private static OccupiedTile[] createAllPossibleOccupiedTiles() {
+        final OccupiedTile[] occupiedTiles = new OccupiedTile[Piece.POOL_SIZE];
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            for (final Alliance alliance : Alliance.values()) {
+                for (int i = 0; i < NUM_TILES; i++) {
+                    for (final boolean isFirstMove : new boolean[]{false, true}) {
+                        final Piece piece = Piece.create(pieceType, alliance, i, isFirstMove);
+                        occupiedTiles[piece.getPoolIndex()] = new OccupiedTile(i, piece);
+                    }
+                }
+            }
+        }
+        return occupiedTiles;
     }
 
+    /*
+     * Returns the cached tile; an occupied tile sits on its piece's position.
+     */
     public static final Tile createTile(final int tileCoordinate, final Piece piece) {
-        return piece != null ? new OccupiedTile(tileCoordinate, piece) : EMPTY_TILES_CACHE.get(tileCoordinate);
+        return piece != null ? OCCUPIED_TILES_CACHE[piece.getPoolIndex()] : EMPTY_TILES_CACHE[tileCoordinate];
     }
 
     private Tile(final int tileCoordinate) {
@@ -0,0 +1,201 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * Class holding a table of 781 random keys laid out as in the Polyglot
+ * book format (768 piece-square keys, 4 castling keys, 8 en passant file
+ * keys and one side to move key) and hashing a board with it.
+ */
+public final class ZobristKeys {
+
+    public static final int NUM_KEYS = 781;
+
+    private static final int CASTLE_OFFSET = 768;
+    private static final int EN_PASSANT_OFFSET = 772;
+    private static final int TURN_OFFSET = 780;
+
+    private static final long STANDARD_SEED = 0x4A43686573734B65L;
+    private static final ZobristKeys STANDARD_KEYS = new ZobristKeys(createStandardKeys());
+    private static final ZobristKeys POLYGLOT_KEYS = new ZobristKeys(PolyglotRandom64.KEYS.clone());
+
+    private final long[] keys;
+
+    private ZobristKeys(final long[] keys) {
+        if (keys.length != NUM_KEYS) {
+            throw new RuntimeException("Zobrist table must contain " + NUM_KEYS + " keys, found " + keys.length);
+        }
+        this.keys = keys;
+    }
+
+    /*
+     * Returns the engine's own deterministic key table, used to hash boards
+     * for the search.
+     */
+    public static ZobristKeys standard() {
+        return STANDARD_KEYS;
+    }
+
+    /*
+     * Returns the published Polyglot Random64 table. Opening books are
+     * keyed with it, so books from other tools can be probed.
+     */
+    public static ZobristKeys polyglot() {
+        return POLYGLOT_KEYS;
+    }
+
+    /*
+     * Loads a custom key table stored as 781 big-endian longs.
+     */
+    public static ZobristKeys load(final Path path) throws IOException {
+        try (final InputStream in = Files.newInputStream(path);
+             final DataInputStream data = new DataInputStream(in)) {
+            final long[] keys = new long[NUM_KEYS];
+            for (int i = 0; i < NUM_KEYS; i++) {
+                keys[i] = data.readLong();
+            }
+            return new ZobristKeys(keys);
+        }
+    }
+
+    private static long[] createStandardKeys() {
+        final long[] keys = new long[NUM_KEYS];
+        long state = STANDARD_SEED;
+        for (int i = 0; i < NUM_KEYS; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            keys[i] = z ^ (z >>> 31);
+        }
+        return keys;
+    }
+
+    public long getPieceKey(final Piece piece, final int tileCoordinate) {
+        return this.keys[pieceKeyIndex(piece.getPieceType(), piece.getPieceAlliance(), tileCoordinate)];
+    }
+
+    public long getCastleKey(final int castleIndex) {
+        return this.keys[CASTLE_OFFSET + castleIndex];
+    }
+
+    public long getEnPassantKey(final int file) {
+        return this.keys[EN_PASSANT_OFFSET + file];
+    }
+
+    public long getTurnKey() {
+        return this.keys[TURN_OFFSET];
+    }
+
+    /*
+     * Calculates the key of a board. Walks the 64 tiles without allocating.
+     */
+    public long hash(final Board board) {
+        return hash(board.getGameBoard(), board.getCastlingRights(), board.currentPlayer().getAlliance(),
+                board.getEnPassantPawn());
+    }
+
+    /*
+     * Calculates the key from the raw board state, so that a position can be
+     * keyed before its Board is constructed.
+     */
+    long hash(final Tile[][] gameBoard, final int castlingRights, final Alliance moveMaker, final Pawn enPassantPawn) {
+        long key = 0L;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Tile tile = tileAt(gameBoard, i);
+            if (tile.isTileOccupied()) {
+                key ^= getPieceKey(tile.getPiece(), i);
+            }
+        }
+        key ^= castleKeys(castlingRights);
+        key ^= enPassantKey(gameBoard, moveMaker, enPassantPawn);
+        if (moveMaker.isWhite()) {
+            key ^= getTurnKey();
+        }
+        return key;
+    }
+
+    /*
+     * Polyglot piece kinds interleave the alliances: black pawn 0, white pawn 1,
+     * black knight 2 and so on. Rows count from white's first rank upwards.
+     */
+    static int pieceKeyIndex(final Piece.PieceType pieceType, final Alliance alliance, final int tileCoordinate) {
+        final int kind = 2 * pieceKindOrdinal(pieceType) + (alliance.isWhite() ? 1 : 0);
+        final int row = 7 - tileCoordinate / BoardUtils.NUM_TILES_PER_ROW;
+        final int file = tileCoordinate % BoardUtils.NUM_TILES_PER_ROW;
+        return 64 * kind + 8 * row + file;
+    }
+
+    private static int pieceKindOrdinal(final Piece.PieceType pieceType) {
+        switch (pieceType) {
+            case PAWN:
+                return 0;
+            case KNIGHT:
+                return 1;
+            case BISHOP:
+                return 2;
+            case ROOK:
+                return 3;
+            case QUEEN:
+                return 4;
+            case KING:
+                return 5;
+            default:
+                throw new RuntimeException("Unknown piece type " + pieceType);
+        }
+    }
+
+    /*
+     * CastlingRights bits follow the Polyglot castle key order.
+     */
+    private long castleKeys(final int castlingRights) {
+        long key = 0L;
+        for (int castle = 0; castle < CastlingRights.CASTLES; castle++) {
+            if ((castlingRights & (1 << castle)) != 0) {
+                key ^= getCastleKey(castle);
+            }
+        }
+        return key;
+    }
+
+    private long enPassantKey(final Tile[][] board, final Alliance moveMaker, final Pawn enPassantPawn) {
+        return isEnPassantCapturePossible(board, moveMaker, enPassantPawn) ?
+                getEnPassantKey(enPassantPawn.getPiecePosition() % BoardUtils.NUM_TILES_PER_ROW) : 0L;
+    }
+
+    /*
+     * As in Polyglot, the en passant file only counts when a pawn of the side
+     * to move stands next to the pawn that just jumped.
+     */
+    static boolean isEnPassantCapturePossible(final Tile[][] board, final Alliance moveMaker, final Pawn enPassantPawn) {
+        if (enPassantPawn == null) {
+            return false;
+        }
+        final int position = enPassantPawn.getPiecePosition();
+        final int file = position % BoardUtils.NUM_TILES_PER_ROW;
+        return file > 0 && isPieceOn(board, position - 1, Piece.PieceType.PAWN, moveMaker) ||
+                file < 7 && isPieceOn(board, position + 1, Piece.PieceType.PAWN, moveMaker);
+    }
+
+    private static boolean isPieceOn(final Tile[][] board,
+                                     final int tileCoordinate,
+                                     final Piece.PieceType pieceType,
+                                     final Alliance alliance) {
+        final Tile tile = tileAt(board, tileCoordinate);
+        return tile.isTileOccupied() &&
+                tile.getPiece().getPieceType() == pieceType &&
+                tile.getPiece().getPieceAlliance() == alliance;
+    }
+
+    private static Tile tileAt(final Tile[][] board, final int tileCoordinate) {
+        return board[tileCoordinate / BoardUtils.NUM_TILES_PER_ROW][tileCoordinate % BoardUtils.NUM_TILES_PER_ROW];
+    }
+}
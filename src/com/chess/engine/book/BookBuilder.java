@@ -0,0 +1,600 @@
+package com.chess.engine.book;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.ZobristKeys;
+import com.chess.engine.pgn.PgnGame;
+import com.chess.engine.pgn.PgnReader;
+import com.chess.engine.pgn.PgnUtilities;
+import com.chess.engine.player.MoveTransition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/*
+ * Class building a Polyglot opening book from PGN files. Games are replayed
+ * in parallel up to a ply limit, every (position key, move, result weight)
+ * record goes into a bounded per-worker buffer that is sorted and spilled to
+ * disk as a run when full, and the runs are then k-way merged into the
+ * final sorted book. Memory use is bounded independently of corpus size.
+ */
+public final class BookBuilder {
+
+    private static final int RECORD_SIZE_IN_MEMORY = 16;
+    private static final int GAMES_PER_BATCH = 256;
+    private static final int MAX_MERGE_FAN_IN = 64;
+    private static final int MAX_POLYGLOT_WEIGHT = 0xFFFF;
+
+    private final int maxPly;
+    private final long memoryBudget;
+    private final int threads;
+    private final Path tempDirectory;
+    private final ZobristKeys zobristKeys;
+
+    private final AtomicLong gamesReplayed = new AtomicLong();
+    private final AtomicLong positionsRecorded = new AtomicLong();
+
+    private BookBuilder(final Builder builder) {
+        this.maxPly = builder.maxPly;
+        this.memoryBudget = builder.memoryBudget;
+        this.threads = builder.threads;
+        this.tempDirectory = builder.tempDirectory;
+        this.zobristKeys = builder.zobristKeys;
+    }
+
+    public long getGamesReplayed() {
+        return this.gamesReplayed.get();
+    }
+
+    public long getPositionsRecorded() {
+        return this.positionsRecorded.get();
+    }
+
+    /*
+     * Replays every game of the given PGN files and writes the sorted book.
+     * Returns the number of book entries written.
+     */
+    public long build(final List<Path> pgnFiles, final Path bookFile) throws IOException {
+        final Path runDirectory = Files.createTempDirectory(this.tempDirectory, "book-runs");
+        try {
+            final List<Path> runs = replayGames(pgnFiles, runDirectory);
+            return mergeRuns(runs, runDirectory, bookFile);
+        } finally {
+            deleteRecursively(runDirectory);
+        }
+    }
+
+    private List<Path> replayGames(final List<Path> pgnFiles, final Path runDirectory) throws IOException {
+        final int recordsPerBuffer = (int) Math.max(1024, Math.min(Integer.MAX_VALUE - 8,
+                this.memoryBudget / RECORD_SIZE_IN_MEMORY / this.threads));
+        final BlockingQueue<RecordBuffer> bufferPool = new ArrayBlockingQueue<>(this.threads);
+        for (int i = 0; i < this.threads; i++) {
+            bufferPool.add(new RecordBuffer(recordsPerBuffer));
+        }
+        final List<Path> runs = Collections.synchronizedList(new ArrayList<>());
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        // bounds the number of parsed games waiting in memory
+        final Semaphore batchesInFlight = new Semaphore(2 * this.threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        try {
+            for (final Path pgnFile : pgnFiles) {
+                try (final PgnReader reader = new PgnReader(Files.newBufferedReader(pgnFile, StandardCharsets.ISO_8859_1))) {
+                    List<PgnGame> batch = new ArrayList<>(GAMES_PER_BATCH);
+                    PgnGame game;
+                    while ((game = reader.readGame()) != null && failure.get() == null) {
+                        batch.add(game);
+                        if (batch.size() == GAMES_PER_BATCH) {
+                            submitBatch(executor, batchesInFlight, bufferPool, batch, runs, runDirectory, failure);
+                            batch = new ArrayList<>(GAMES_PER_BATCH);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        submitBatch(executor, batchesInFlight, bufferPool, batch, runs, runDirectory, failure);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+            awaitTermination(executor);
+        }
+        if (failure.get() != null) {
+            throw new IOException("Replaying games failed", failure.get());
+        }
+        for (final RecordBuffer buffer : bufferPool) {
+            if (buffer.size() > 0) {
+                runs.add(buffer.spill(runDirectory));
+            }
+        }
+        return new ArrayList<>(runs);
+    }
+
+    private void submitBatch(final ExecutorService executor,
+                             final Semaphore batchesInFlight,
+                             final BlockingQueue<RecordBuffer> bufferPool,
+                             final List<PgnGame> batch,
+                             final List<Path> runs,
+                             final Path runDirectory,
+                             final AtomicReference<Throwable> failure) {
+        batchesInFlight.acquireUninterruptibly();
+        executor.execute(() -> {
+            RecordBuffer buffer = null;
+            try {
+                buffer = bufferPool.take();
+                for (final PgnGame game : batch) {
+                    replayGame(game, buffer, runs, runDirectory);
+                }
+            } catch (final Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                if (buffer != null) {
+                    bufferPool.add(buffer);
+                }
+                batchesInFlight.release();
+            }
+        });
+    }
+
+    private void replayGame(final PgnGame game,
+                            final RecordBuffer buffer,
+                            final List<Path> runs,
+                            final Path runDirectory) throws IOException {
+        final int whiteWeight;
+        final int blackWeight;
+        switch (game.getResult()) {
+            case WHITE_WINS:
+                whiteWeight = 2;
+                blackWeight = 0;
+                break;
+            case BLACK_WINS:
+                whiteWeight = 0;
+                blackWeight = 2;
+                break;
+            case DRAW:
+                whiteWeight = 1;
+                blackWeight = 1;
+                break;
+            default:
+                return;
+        }
+        Board board = Board.createStandardBoard();
+        final List<String> moves = game.getMoves();
+        for (int ply = 0; ply < this.maxPly && ply < moves.size(); ply++) {
+            final Move move;
+            try {
+                move = PgnUtilities.createMove(board, moves.get(ply));
+            } catch (final RuntimeException e) {
+                break;
+            }
+            if (move == MoveFactory.getNullMove()) {
+                break;
+            }
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (!transition.getMoveStatus().isDone()) {
+                break;
+            }
+            final int weight = board.currentPlayer().getAlliance().isWhite() ? whiteWeight : blackWeight;
+            if (weight > 0) {
+                if (buffer.isFull()) {
+                    runs.add(buffer.spill(runDirectory));
+                }
+                buffer.add(this.zobristKeys.hash(board), PolyglotBook.encodeMove(move), weight);
+                this.positionsRecorded.incrementAndGet();
+            }
+            board = transition.getTransitionBoard();
+        }
+        this.gamesReplayed.incrementAndGet();
+    }
+
+    /*
+     * Merges the runs at most MAX_MERGE_FAN_IN at a time until one pass can
+     * produce the book, keeping open file handles and buffers bounded.
+     */
+    private long mergeRuns(final List<Path> initialRuns, final Path runDirectory, final Path bookFile) throws IOException {
+        List<Path> runs = initialRuns;
+        while (runs.size() > MAX_MERGE_FAN_IN) {
+            final List<Path> mergedRuns = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += MAX_MERGE_FAN_IN) {
+                final List<Path> group = runs.subList(i, Math.min(runs.size(), i + MAX_MERGE_FAN_IN));
+                final Path mergedRun = Files.createTempFile(runDirectory, "merged", ".run");
+                try (final DataOutputStream out = openOutput(mergedRun)) {
+                    mergeGroup(group, new RunWriter(out));
+                }
+                for (final Path run : group) {
+                    Files.delete(run);
+                }
+                mergedRuns.add(mergedRun);
+            }
+            runs = mergedRuns;
+        }
+        try (final DataOutputStream out = openOutput(bookFile)) {
+            final BookWriter bookWriter = new BookWriter(out);
+            mergeGroup(runs, bookWriter);
+            bookWriter.finish();
+            return bookWriter.entriesWritten;
+        }
+    }
+
+    private static void mergeGroup(final List<Path> runs, final RecordSink sink) throws IOException {
+        final PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> compareRecords(a.key, a.move, b.key, b.move));
+        final List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            for (final Path run : runs) {
+                final RunReader reader = new RunReader(run);
+                readers.add(reader);
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+            boolean hasPending = false;
+            long pendingKey = 0;
+            int pendingMove = 0;
+            long pendingWeight = 0;
+            while (!queue.isEmpty()) {
+                final RunReader reader = queue.poll();
+                if (hasPending && reader.key == pendingKey && reader.move == pendingMove) {
+                    pendingWeight += reader.weight;
+                } else {
+                    if (hasPending) {
+                        sink.accept(pendingKey, pendingMove, pendingWeight);
+                    }
+                    hasPending = true;
+                    pendingKey = reader.key;
+                    pendingMove = reader.move;
+                    pendingWeight = reader.weight;
+                }
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+            if (hasPending) {
+                sink.accept(pendingKey, pendingMove, pendingWeight);
+            }
+        } finally {
+            for (final RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    static int compareRecords(final long key, final int move, final long otherKey, final int otherMove) {
+        final int keyComparison = Long.compareUnsigned(key, otherKey);
+        return keyComparison != 0 ? keyComparison : Integer.compare(move, otherMove);
+    }
+
+    private static DataOutputStream openOutput(final Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+    }
+
+    private static void awaitTermination(final ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting for the replay workers
+            }
+        } catch (final InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void deleteRecursively(final Path directory) throws IOException {
+        try (final Stream<Path> paths = Files.list(directory)) {
+            for (final Path path : (Iterable<Path>) paths::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BookBuilder [-ply N] [-memory MB] [-threads N] <book.bin> <games.pgn>...");
+            System.exit(1);
+        }
+        final Builder builder = new Builder();
+        int i = 0;
+        while (args[i].startsWith("-")) {
+            switch (args[i]) {
+                case "-ply":
+                    builder.setMaxPly(Integer.parseInt(args[i + 1]));
+                    break;
+                case "-memory":
+                    builder.setMemoryBudget(Long.parseLong(args[i + 1]) << 20);
+                    break;
+                case "-threads":
+                    builder.setThreads(Integer.parseInt(args[i + 1]));
+                    break;
+                default:
+                    throw new RuntimeException("Unknown option " + args[i]);
+            }
+            i += 2;
+        }
+        final Path bookFile = Paths.get(args[i++]);
+        final List<Path> pgnFiles = new ArrayList<>();
+        while (i < args.length) {
+            pgnFiles.add(Paths.get(args[i++]));
+        }
+        final BookBuilder bookBuilder = builder.build();
+        final long start = System.nanoTime();
+        final long entries = bookBuilder.build(pgnFiles, bookFile);
+        System.out.printf("%d games, %d positions, %d book entries in %d ms%n",
+                bookBuilder.getGamesReplayed(), bookBuilder.getPositionsRecorded(), entries,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /*
+     * Class used to implement the builder design pattern when configuring a book builder.
+     */
+    public static class Builder {
+
+        int maxPly = 24;
+        long memoryBudget = 256L << 20;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path tempDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+        ZobristKeys zobristKeys = ZobristKeys.polyglot();
+
+        public Builder setMaxPly(final int maxPly) {
+            this.maxPly = maxPly;
+            return this;
+        }
+
+        public Builder setMemoryBudget(final long memoryBudget) {
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        public Builder setThreads(final int threads) {
+            this.threads = Math.max(1, threads);
+            return this;
+        }
+
+        public Builder setTempDirectory(final Path tempDirectory) {
+            this.tempDirectory = tempDirectory;
+            return this;
+        }
+
+        public Builder setZobristKeys(final ZobristKeys zobristKeys) {
+            this.zobristKeys = zobristKeys;
+            return this;
+        }
+
+        public BookBuilder build() {
+            return new BookBuilder(this);
+        }
+    }
+
+    private interface RecordSink {
+        void accept(long key, int move, long weight) throws IOException;
+    }
+
+    /*
+     * Fixed-capacity record store kept as parallel primitive arrays. Spilling
+     * sorts by (unsigned key, move), folds duplicates and writes a run file.
+     */
+    private static final class RecordBuffer {
+
+        private final long[] keys;
+        private final int[] moves;
+        private final int[] weights;
+        private int size;
+
+        RecordBuffer(final int capacity) {
+            this.keys = new long[capacity];
+            this.moves = new int[capacity];
+            this.weights = new int[capacity];
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        boolean isFull() {
+            return this.size == this.keys.length;
+        }
+
+        void add(final long key, final int move, final int weight) {
+            this.keys[this.size] = key;
+            this.moves[this.size] = move;
+            this.weights[this.size] = weight;
+            this.size++;
+        }
+
+        Path spill(final Path runDirectory) throws IOException {
+            sort(0, this.size - 1);
+            final Path run = Files.createTempFile(runDirectory, "spill", ".run");
+            try (final DataOutputStream out = openOutput(run)) {
+                final RunWriter writer = new RunWriter(out);
+                int i = 0;
+                while (i < this.size) {
+                    final long key = this.keys[i];
+                    final int move = this.moves[i];
+                    long weight = 0;
+                    while (i < this.size && this.keys[i] == key && this.moves[i] == move) {
+                        weight += this.weights[i++];
+                    }
+                    writer.accept(key, move, weight);
+                }
+            }
+            this.size = 0;
+            return run;
+        }
+
+        private void sort(int low, int high) {
+            while (high - low > 16) {
+                final int mid = (low + high) >>> 1;
+                final long pivotKey = this.keys[mid];
+                final int pivotMove = this.moves[mid];
+                int i = low;
+                int j = high;
+                while (i <= j) {
+                    while (compareRecords(this.keys[i], this.moves[i], pivotKey, pivotMove) < 0) {
+                        i++;
+                    }
+                    while (compareRecords(this.keys[j], this.moves[j], pivotKey, pivotMove) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                // recurse into the smaller half to bound the stack depth
+                if (j - low < high - i) {
+                    sort(low, j);
+                    low = i;
+                } else {
+                    sort(i, high);
+                    high = j;
+                }
+            }
+            for (int i = low + 1; i <= high; i++) {
+                for (int j = i; j > low && compareRecords(this.keys[j - 1], this.moves[j - 1], this.keys[j], this.moves[j]) > 0; j--) {
+                    swap(j - 1, j);
+                }
+            }
+        }
+
+        private void swap(final int a, final int b) {
+            final long key = this.keys[a];
+            this.keys[a] = this.keys[b];
+            this.keys[b] = key;
+            final int move = this.moves[a];
+            this.moves[a] = this.moves[b];
+            this.moves[b] = move;
+            final int weight = this.weights[a];
+            this.weights[a] = this.weights[b];
+            this.weights[b] = weight;
+        }
+    }
+
+    /*
+     * Run files hold (key, move, weight) records as 8 + 2 + 8 bytes.
+     */
+    private static final class RunWriter implements RecordSink {
+
+        private final DataOutputStream out;
+
+        RunWriter(final DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void accept(final long key, final int move, final long weight) throws IOException {
+            this.out.writeLong(key);
+            this.out.writeShort(move);
+            this.out.writeLong(weight);
+        }
+    }
+
+    private static final class RunReader {
+
+        private final DataInputStream in;
+        long key;
+        int move;
+        long weight;
+
+        RunReader(final Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+        }
+
+        boolean advance() throws IOException {
+            try {
+                this.key = this.in.readLong();
+            } catch (final EOFException e) {
+                return false;
+            }
+            this.move = this.in.readUnsignedShort();
+            this.weight = this.in.readLong();
+            return true;
+        }
+
+        void close() throws IOException {
+            this.in.close();
+        }
+    }
+
+    /*
+     * Collects the moves of one position at a time, scales their weights into
+     * Polyglot's 16 bits and writes them heaviest first.
+     */
+    private static final class BookWriter implements RecordSink {
+
+        private final DataOutputStream out;
+        private long currentKey;
+        private int count;
+        private int[] moves = new int[32];
+        private long[] weights = new long[32];
+        long entriesWritten;
+
+        BookWriter(final DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void accept(final long key, final int move, final long weight) throws IOException {
+            if (this.count > 0 && key != this.currentKey) {
+                flushPosition();
+            }
+            if (this.count == this.moves.length) {
+                this.moves = Arrays.copyOf(this.moves, this.count * 2);
+                this.weights = Arrays.copyOf(this.weights, this.count * 2);
+            }
+            this.currentKey = key;
+            this.moves[this.count] = move;
+            this.weights[this.count] = weight;
+            this.count++;
+        }
+
+        void finish() throws IOException {
+            if (this.count > 0) {
+                flushPosition();
+            }
+        }
+
+        private void flushPosition() throws IOException {
+            long maxWeight = 0;
+            for (int i = 0; i < this.count; i++) {
+                maxWeight = Math.max(maxWeight, this.weights[i]);
+            }
+            final double scale = maxWeight > MAX_POLYGLOT_WEIGHT ? (double) MAX_POLYGLOT_WEIGHT / maxWeight : 1.0;
+            while (this.count > 0) {
+                int heaviest = 0;
+                for (int i = 1; i < this.count; i++) {
+                    if (this.weights[i] > this.weights[heaviest]) {
+                        heaviest = i;
+                    }
+                }
+                this.out.writeLong(this.currentKey);
+                this.out.writeShort(this.moves[heaviest]);
+                this.out.writeShort((int) Math.max(1, Math.round(this.weights[heaviest] * scale)));
+                this.out.writeInt(0);
+                this.entriesWritten++;
+                this.count--;
+                this.moves[heaviest] = this.moves[this.count];
+                this.weights[heaviest] = this.weights[this.count];
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.chess.engine.book;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.Tile;
+import com.chess.engine.board.ZobristKeys;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Class reading an opening book in the Polyglot .bin format. The file is
+ * memory-mapped and its sorted 16-byte entries (key, move, weight, learn)
+ * are binary searched in place, so a probe allocates nothing on the heap.
+ */
+public final class PolyglotBook {
+
+    static final int ENTRY_SIZE = 16;
+
+    private static final int MOVE_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 10;
+
+    private final ByteBuffer entries;
+    private final int entryCount;
+    private final ZobristKeys zobristKeys;
+
+    private PolyglotBook(final ByteBuffer entries, final ZobristKeys zobristKeys) {
+        this.entries = entries;
+        this.entryCount = entries.capacity() / ENTRY_SIZE;
+        this.zobristKeys = zobristKeys;
+    }
+
+    public static PolyglotBook open(final Path bookPath) throws IOException {
+        return open(bookPath, ZobristKeys.polyglot());
+    }
+
+    public static PolyglotBook open(final Path bookPath, final ZobristKeys zobristKeys) throws IOException {
+        try (final FileChannel channel = FileChannel.open(bookPath, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size % ENTRY_SIZE != 0) {
+                throw new RuntimeException("Book " + bookPath + " is not a whole number of entries.");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new RuntimeException("Book " + bookPath + " is too large to map.");
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new PolyglotBook(buffer, zobristKeys);
+        }
+    }
+
+    public int getEntryCount() {
+        return this.entryCount;
+    }
+
+    public long getKey(final Board board) {
+        return this.zobristKeys.hash(board);
+    }
+
+    /*
+     * Returns the index of the first entry with the given key, or -1.
+     * Keys are ordered as unsigned 64-bit values.
+     */
+    public int findFirstEntry(final long key) {
+        int low = 0;
+        int high = this.entryCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(entryKey(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < this.entryCount && entryKey(low) == key ? low : -1;
+    }
+
+    /*
+     * Picks a book move with probability proportional to its weight.
+     */
+    public Move selectMove(final Board board) {
+        final long key = getKey(board);
+        final int first = findFirstEntry(key);
+        if (first < 0) {
+            return MoveFactory.getNullMove();
+        }
+        long totalWeight = 0;
+        for (int i = first; i < this.entryCount && entryKey(i) == key; i++) {
+            totalWeight += entryWeight(i);
+        }
+        if (totalWeight == 0) {
+            return resolveMove(board, entryMove(first));
+        }
+        long pick = ThreadLocalRandom.current().nextLong(totalWeight);
+        for (int i = first; i < this.entryCount && entryKey(i) == key; i++) {
+            pick -= entryWeight(i);
+            if (pick < 0) {
+                return resolveMove(board, entryMove(i));
+            }
+        }
+        return MoveFactory.getNullMove();
+    }
+
+    public Move bestMove(final Board board) {
+        final long key = getKey(board);
+        final int first = findFirstEntry(key);
+        if (first < 0) {
+            return MoveFactory.getNullMove();
+        }
+        int best = first;
+        for (int i = first + 1; i < this.entryCount && entryKey(i) == key; i++) {
+            if (entryWeight(i) > entryWeight(best)) {
+                best = i;
+            }
+        }
+        return resolveMove(board, entryMove(best));
+    }
+
+    private long entryKey(final int index) {
+        return this.entries.getLong(index * ENTRY_SIZE);
+    }
+
+    private int entryMove(final int index) {
+        return this.entries.getShort(index * ENTRY_SIZE + MOVE_OFFSET) & 0xFFFF;
+    }
+
+    private int entryWeight(final int index) {
+        return this.entries.getShort(index * ENTRY_SIZE + WEIGHT_OFFSET) & 0xFFFF;
+    }
+
+    /*
+     * Maps a Polyglot move onto the side to move's legal moves. Polyglot
+     * writes castling as the king taking its own rook.
+     */
+    static Move resolveMove(final Board board, final int polyglotMove) {
+        final int currentCoordinate = fromCoordinate(polyglotMove);
+        int destinationCoordinate = toCoordinate(polyglotMove);
+        final Tile kingTile = board.getTile(currentCoordinate);
+        if (kingTile.isTileOccupied() && kingTile.getPiece().getPieceType().isKing() &&
+                (currentCoordinate == 60 || currentCoordinate == 4)) {
+            if (destinationCoordinate == currentCoordinate + 3) {
+                destinationCoordinate = currentCoordinate + 2;
+            } else if (destinationCoordinate == currentCoordinate - 4) {
+                destinationCoordinate = currentCoordinate - 2;
+            }
+        }
+        final int promotion = (polyglotMove >>> 12) & 7;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getCurrentDestination() == currentCoordinate &&
+                    move.getDestinationCoordinate() == destinationCoordinate &&
+                    promotionCode(move) == promotion) {
+                return move;
+            }
+        }
+        return MoveFactory.getNullMove();
+    }
+
+    static int encodeMove(final Move move) {
+        final int currentCoordinate = move.getCurrentDestination();
+        int destinationCoordinate = move.getDestinationCoordinate();
+        if (move.isCastlingMove()) {
+            destinationCoordinate = ((Move.CastleMove) move).getCastleRook().getPiecePosition();
+        }
+        return promotionCode(move) << 12 |
+                polyglotRow(currentCoordinate) << 9 | polyglotFile(currentCoordinate) << 6 |
+                polyglotRow(destinationCoordinate) << 3 | polyglotFile(destinationCoordinate);
+    }
+
+    private static int promotionCode(final Move move) {
+        if (!(move instanceof Move.PawnPromotion)) {
+            return 0;
+        }
+        switch (((Move.PawnPromotion) move).getPromotionPiece().getPieceType()) {
+            case KNIGHT:
+                return 1;
+            case BISHOP:
+                return 2;
+            case ROOK:
+                return 3;
+            case QUEEN:
+                return 4;
+            default:
+                throw new RuntimeException("Invalid promotion " + move);
+        }
+    }
+
+    private static int polyglotRow(final int tileCoordinate) {
+        return 7 - tileCoordinate / BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    private static int polyglotFile(final int tileCoordinate) {
+        return tileCoordinate % BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    static int fromCoordinate(final int polyglotMove) {
+        return toTileCoordinate((polyglotMove >>> 9) & 7, (polyglotMove >>> 6) & 7);
+    }
+
+    static int toCoordinate(final int polyglotMove) {
+        return toTileCoordinate((polyglotMove >>> 3) & 7, polyglotMove & 7);
+    }
+
+    /*
+     * Polyglot rows count up from white's first rank; tile coordinates
+     * count down from black's.
+     */
+    private static int toTileCoordinate(final int row, final int file) {
+        return (7 - row) * BoardUtils.NUM_TILES_PER_ROW + file;
+    }
+}
@@ -0,0 +1,119 @@
+package com.chess.engine.endgame;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/*
+ * Class probing a king + piece versus king bitbase written by the
+ * BitbaseGenerator. The file is memory-mapped read-only and probed with
+ * absolute reads, so any number of threads can probe without locking.
+ */
+public final class Bitbase {
+
+    static final int MAGIC = 0x4A434242;
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+
+    private final Piece.PieceType pieceType;
+    private final ByteBuffer data;
+
+    private Bitbase(final Piece.PieceType pieceType, final ByteBuffer data) {
+        this.pieceType = pieceType;
+        this.data = data;
+    }
+
+    public static Bitbase open(final Path file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new RuntimeException(file + " is not a bitbase.");
+            }
+            final Piece.PieceType pieceType = Piece.PieceType.values()[buffer.getInt(8)];
+            if (buffer.getInt(12) != BitbaseIndex.size(pieceType)) {
+                throw new RuntimeException(file + " has an unexpected size.");
+            }
+            return new Bitbase(pieceType, buffer);
+        }
+    }
+
+    public Piece.PieceType getPieceType() {
+        return this.pieceType;
+    }
+
+    /*
+     * Returns the result for the side to move, or UNKNOWN when the board is
+     * not this bitbase's material.
+     */
+    public BitbaseResult probe(final Board board) {
+        final Collection<Piece> whitePieces = board.getWhitePieces();
+        final Collection<Piece> blackPieces = board.getBlackPieces();
+        final Alliance strongSide;
+        if (whitePieces.size() == 2 && blackPieces.size() == 1) {
+            strongSide = Alliance.WHITE;
+        } else if (whitePieces.size() == 1 && blackPieces.size() == 2) {
+            strongSide = Alliance.BLACK;
+        } else {
+            return BitbaseResult.UNKNOWN;
+        }
+        int strongKing = -1;
+        int weakKing = -1;
+        int piece = -1;
+        for (final Piece strongPiece : strongSide.isWhite() ? whitePieces : blackPieces) {
+            if (strongPiece.getPieceType().isKing()) {
+                strongKing = strongPiece.getPiecePosition();
+            } else if (strongPiece.getPieceType() == this.pieceType) {
+                piece = strongPiece.getPiecePosition();
+            }
+        }
+        for (final Piece weakPiece : strongSide.isWhite() ? blackPieces : whitePieces) {
+            weakKing = weakPiece.getPiecePosition();
+        }
+        if (strongKing < 0 || piece < 0) {
+            return BitbaseResult.UNKNOWN;
+        }
+        // the tables are built with the strong side moving towards row 0
+        if (strongSide.isBlack()) {
+            strongKing ^= 56;
+            weakKing ^= 56;
+            piece ^= 56;
+        }
+        final int sideToMove = board.currentPlayer().getAlliance() == strongSide ?
+                BitbaseIndex.STRONG_TO_MOVE : BitbaseIndex.WEAK_TO_MOVE;
+        return probe(sideToMove, strongKing, weakKing, piece);
+    }
+
+    BitbaseResult probe(final int sideToMove, final int strongKing, final int weakKing, final int piece) {
+        final int index = BitbaseIndex.index(this.pieceType, sideToMove, strongKing, weakKing, piece);
+        final int packed = this.data.get(HEADER_SIZE + (index >>> 2));
+        return BitbaseResult.fromCode((packed >>> (2 * (index & 3))) & 3);
+    }
+
+    public enum BitbaseResult {
+        DRAW,
+        WIN,
+        LOSS,
+        UNKNOWN;
+
+        static BitbaseResult fromCode(final int code) {
+            switch (code) {
+                case BitbaseGenerator.DRAW:
+                    return DRAW;
+                case BitbaseGenerator.WIN:
+                    return WIN;
+                case BitbaseGenerator.LOSS:
+                    return LOSS;
+                default:
+                    return UNKNOWN;
+            }
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.chess.engine.endgame;
+
+import com.chess.engine.pieces.Piece;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/*
+ * Class generating win/draw/loss bitbases for king + piece versus king by
+ * retrograde iteration. Every pass classifies the still unknown positions
+ * from their successors until a pass changes nothing; whatever is left
+ * unknown is a draw. Passes are split into chunks and run in parallel.
+ *
+ * Values only ever move from UNKNOWN to a final result, so a worker reading
+ * a neighbour's stale UNKNOWN just defers that position to the next pass.
+ * The pass ends with a join, which publishes every write before the next.
+ */
+public final class BitbaseGenerator {
+
+    static final byte DRAW = 0;
+    static final byte WIN = 1;
+    static final byte LOSS = 2;
+    static final byte ILLEGAL = 3;
+    private static final byte UNKNOWN = 4;
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private static final int[][] KING_DIRECTIONS = {{-1, -1}, {0, -1}, {1, -1}, {-1, 0}, {1, 0}, {-1, 1}, {0, 1}, {1, 1}};
+    private static final int[][] KNIGHT_DIRECTIONS = {{1, 2}, {2, 1}, {-1, 2}, {-2, 1}, {1, -2}, {2, -1}, {-1, -2}, {-2, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {1, -1}, {-1, 1}, {1, 1}};
+    private static final int[][] ROOK_DIRECTIONS = {{0, -1}, {-1, 0}, {1, 0}, {0, 1}};
+
+    private final Map<Piece.PieceType, byte[]> tables = new EnumMap<>(Piece.PieceType.class);
+
+    /*
+     * Returns the table of one value per index, generating the queen and rook
+     * tables first when pawn promotions need them.
+     */
+    public synchronized byte[] generate(final Piece.PieceType pieceType) {
+        if (pieceType == Piece.PieceType.KING) {
+            throw new RuntimeException("A bitbase needs a piece other than the king.");
+        }
+        final byte[] cached = this.tables.get(pieceType);
+        if (cached != null) {
+            return cached;
+        }
+        final byte[] queenTable = pieceType == Piece.PieceType.PAWN ? generate(Piece.PieceType.QUEEN) : null;
+        final byte[] rookTable = pieceType == Piece.PieceType.PAWN ? generate(Piece.PieceType.ROOK) : null;
+        final Pass pass = new Pass(pieceType, queenTable, rookTable);
+        final int chunks = (pass.table.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(pass::initialise);
+        while (IntStream.range(0, chunks).parallel().map(pass::classify).sum() > 0) {
+            // iterate to the fixed point
+        }
+        for (int i = 0; i < pass.table.length; i++) {
+            if (pass.table[i] == UNKNOWN) {
+                pass.table[i] = DRAW;
+            }
+        }
+        this.tables.put(pieceType, pass.table);
+        return pass.table;
+    }
+
+    /*
+     * Writes a table packed at two bits per position behind a small header.
+     */
+    public void write(final Piece.PieceType pieceType, final Path file) throws IOException {
+        final byte[] table = generate(pieceType);
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(Bitbase.MAGIC);
+            out.writeInt(Bitbase.VERSION);
+            out.writeInt(pieceType.ordinal());
+            out.writeInt(table.length);
+            for (int i = 0; i < table.length; i += 4) {
+                int packed = 0;
+                for (int j = 0; j < 4 && i + j < table.length; j++) {
+                    packed |= table[i + j] << (2 * j);
+                }
+                out.writeByte(packed);
+            }
+        }
+    }
+
+    public static String fileName(final Piece.PieceType pieceType) {
+        return "K" + pieceType + "K.bb";
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final Path directory = Paths.get(args.length > 0 ? args[0] : ".");
+        Files.createDirectories(directory);
+        final BitbaseGenerator generator = new BitbaseGenerator();
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            if (pieceType.isKing()) {
+                continue;
+            }
+            final long start = System.nanoTime();
+            generator.write(pieceType, directory.resolve(fileName(pieceType)));
+            System.out.printf("%s generated in %d ms%n", fileName(pieceType),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private static boolean isAdjacent(final int a, final int b) {
+        return Math.abs(BitbaseIndex.file(a) - BitbaseIndex.file(b)) <= 1 &&
+                Math.abs(BitbaseIndex.rank(a) - BitbaseIndex.rank(b)) <= 1;
+    }
+
+    private static int[][] directions(final Piece.PieceType pieceType) {
+        switch (pieceType) {
+            case KNIGHT:
+                return KNIGHT_DIRECTIONS;
+            case BISHOP:
+                return BISHOP_DIRECTIONS;
+            case ROOK:
+                return ROOK_DIRECTIONS;
+            case QUEEN:
+            case KING:
+                return KING_DIRECTIONS;
+            default:
+                throw new RuntimeException("No directions for " + pieceType);
+        }
+    }
+
+    private static boolean isSlider(final Piece.PieceType pieceType) {
+        return pieceType == Piece.PieceType.BISHOP || pieceType == Piece.PieceType.ROOK ||
+                pieceType == Piece.PieceType.QUEEN;
+    }
+
+    /*
+     * Whether the strong piece on 'from' attacks 'target' when 'blocker' is
+     * the only other occupied square in between.
+     */
+    static boolean attacks(final Piece.PieceType pieceType, final int from, final int target, final int blocker) {
+        if (pieceType == Piece.PieceType.PAWN) {
+            return BitbaseIndex.rank(target) == BitbaseIndex.rank(from) + 1 &&
+                    Math.abs(BitbaseIndex.file(target) - BitbaseIndex.file(from)) == 1;
+        }
+        for (final int[] direction : directions(pieceType)) {
+            int file = BitbaseIndex.file(from);
+            int rank = BitbaseIndex.rank(from);
+            do {
+                file += direction[0];
+                rank += direction[1];
+                if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+                    break;
+                }
+                final int square = BitbaseIndex.square(file, rank);
+                if (square == target) {
+                    return true;
+                }
+                if (square == blocker) {
+                    break;
+                }
+            } while (isSlider(pieceType));
+        }
+        return false;
+    }
+
+    private static final class Pass {
+
+        private final Piece.PieceType pieceType;
+        private final byte[] queenTable;
+        private final byte[] rookTable;
+        private final byte[] table;
+
+        Pass(final Piece.PieceType pieceType, final byte[] queenTable, final byte[] rookTable) {
+            this.pieceType = pieceType;
+            this.queenTable = queenTable;
+            this.rookTable = rookTable;
+            this.table = new byte[BitbaseIndex.size(pieceType)];
+        }
+
+        void initialise(final int chunk) {
+            final int[] position = new int[4];
+            final int end = Math.min(this.table.length, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                BitbaseIndex.decode(this.pieceType, i, position);
+                this.table[i] = isLegal(position) ? UNKNOWN : ILLEGAL;
+            }
+        }
+
+        int classify(final int chunk) {
+            final int[] position = new int[4];
+            final int end = Math.min(this.table.length, (chunk + 1) * CHUNK_SIZE);
+            int changed = 0;
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                if (this.table[i] != UNKNOWN) {
+                    continue;
+                }
+                BitbaseIndex.decode(this.pieceType, i, position);
+                final byte value = position[0] == BitbaseIndex.STRONG_TO_MOVE ?
+                        classifyStrongToMove(position[1], position[2], position[3]) :
+                        classifyWeakToMove(position[1], position[2], position[3]);
+                if (value != UNKNOWN) {
+                    this.table[i] = value;
+                    changed++;
+                }
+            }
+            return changed;
+        }
+
+        private boolean isLegal(final int[] position) {
+            final int strongKing = position[1];
+            final int weakKing = position[2];
+            final int piece = position[3];
+            if (strongKing == weakKing || strongKing == piece || weakKing == piece ||
+                    isAdjacent(strongKing, weakKing)) {
+                return false;
+            }
+            return position[0] == BitbaseIndex.WEAK_TO_MOVE || !attacks(this.pieceType, piece, weakKing, strongKing);
+        }
+
+        private byte valueOf(final int sideToMove, final int strongKing, final int weakKing, final int piece) {
+            return this.table[BitbaseIndex.index(this.pieceType, sideToMove, strongKing, weakKing, piece)];
+        }
+
+        private byte classifyStrongToMove(final int strongKing, final int weakKing, final int piece) {
+            boolean allDraws = true;
+            boolean hasMove = false;
+            for (final int[] direction : KING_DIRECTIONS) {
+                final int file = BitbaseIndex.file(strongKing) + direction[0];
+                final int rank = BitbaseIndex.rank(strongKing) + direction[1];
+                if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+                    continue;
+                }
+                final int square = BitbaseIndex.square(file, rank);
+                if (square == piece || isAdjacent(square, weakKing)) {
+                    continue;
+                }
+                hasMove = true;
+                final byte child = valueOf(BitbaseIndex.WEAK_TO_MOVE, square, weakKing, piece);
+                if (child == LOSS) {
+                    return WIN;
+                }
+                allDraws &= child == DRAW;
+            }
+            if (this.pieceType == Piece.PieceType.PAWN) {
+                final int file = BitbaseIndex.file(piece);
+                final int rank = BitbaseIndex.rank(piece);
+                final int push = BitbaseIndex.square(file, rank + 1);
+                if (push != strongKing && push != weakKing) {
+                    hasMove = true;
+                    if (rank + 1 == 7) {
+                        final byte queen = this.queenTable[BitbaseIndex.index(Piece.PieceType.QUEEN,
+                                BitbaseIndex.WEAK_TO_MOVE, strongKing, weakKing, push)];
+                        final byte rook = this.rookTable[BitbaseIndex.index(Piece.PieceType.ROOK,
+                                BitbaseIndex.WEAK_TO_MOVE, strongKing, weakKing, push)];
+                        if (queen == LOSS || rook == LOSS) {
+                            return WIN;
+                        }
+                    } else {
+                        final byte child = valueOf(BitbaseIndex.WEAK_TO_MOVE, strongKing, weakKing, push);
+                        if (child == LOSS) {
+                            return WIN;
+                        }
+                        allDraws &= child == DRAW;
+                        final int jump = BitbaseIndex.square(file, rank + 2);
+                        if (rank == 1 && jump != strongKing && jump != weakKing) {
+                            final byte jumpChild = valueOf(BitbaseIndex.WEAK_TO_MOVE, strongKing, weakKing, jump);
+                            if (jumpChild == LOSS) {
+                                return WIN;
+                            }
+                            allDraws &= jumpChild == DRAW;
+                        }
+                    }
+                }
+            } else {
+                for (final int[] direction : directions(this.pieceType)) {
+                    int file = BitbaseIndex.file(piece);
+                    int rank = BitbaseIndex.rank(piece);
+                    do {
+                        file += direction[0];
+                        rank += direction[1];
+                        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+                            break;
+                        }
+                        final int square = BitbaseIndex.square(file, rank);
+                        if (square == strongKing || square == weakKing) {
+                            break;
+                        }
+                        hasMove = true;
+                        final byte child = valueOf(BitbaseIndex.WEAK_TO_MOVE, strongKing, weakKing, square);
+                        if (child == LOSS) {
+                            return WIN;
+                        }
+                        allDraws &= child == DRAW;
+                    } while (isSlider(this.pieceType));
+                }
+            }
+            return !hasMove || allDraws ? DRAW : UNKNOWN;
+        }
+
+        private byte classifyWeakToMove(final int strongKing, final int weakKing, final int piece) {
+            boolean allWins = true;
+            boolean hasMove = false;
+            for (final int[] direction : KING_DIRECTIONS) {
+                final int file = BitbaseIndex.file(weakKing) + direction[0];
+                final int rank = BitbaseIndex.rank(weakKing) + direction[1];
+                if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+                    continue;
+                }
+                final int square = BitbaseIndex.square(file, rank);
+                if (isAdjacent(square, strongKing)) {
+                    continue;
+                }
+                if (square == piece) {
+                    // the piece is undefended, so taking it leaves bare kings
+                    return DRAW;
+                }
+                if (attacks(this.pieceType, piece, square, strongKing)) {
+                    continue;
+                }
+                hasMove = true;
+                final byte child = valueOf(BitbaseIndex.STRONG_TO_MOVE, strongKing, square, piece);
+                if (child == DRAW) {
+                    return DRAW;
+                }
+                allWins &= child == WIN;
+            }
+            if (!hasMove) {
+                return attacks(this.pieceType, piece, weakKing, strongKing) ? LOSS : DRAW;
+            }
+            return allWins ? LOSS : UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.chess.engine.endgame;
+
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
+/*
+ * Class mapping king + piece versus king positions onto a dense index.
+ * The strong side is always treated as white, moving towards tile row 0.
+ *
+ * Pawnless positions use the 8-fold board symmetry to bring the strong king
+ * into the a1-a4-d4 triangle (10 squares: a1, a2-b2, a3-c3, a4-d4). Pawn
+ * positions only use the file mirror, bringing the pawn onto files a-d
+ * (24 squares).
+ */
+final class BitbaseIndex {
+
+    static final int STRONG_TO_MOVE = 0;
+    static final int WEAK_TO_MOVE = 1;
+
+    private static final int[] TRIANGLE_SQUARES = initTriangleSquares();
+    private static final int[] TRIANGLE_INDEX = initTriangleIndex();
+
+    static final int PAWNLESS_SIZE = 2 * TRIANGLE_SQUARES.length * 64 * 64;
+    static final int PAWN_SIZE = 2 * 24 * 64 * 64;
+
+    private BitbaseIndex() {
+        throw new RuntimeException("You cant instantiate a Utility Class.");
+    }
+
+    static int size(final Piece.PieceType pieceType) {
+        return pieceType == Piece.PieceType.PAWN ? PAWN_SIZE : PAWNLESS_SIZE;
+    }
+
+    static int file(final int square) {
+        return square & 7;
+    }
+
+    /*
+     * Rank counted from the strong side's back row, 0..7.
+     */
+    static int rank(final int square) {
+        return 7 - (square >>> 3);
+    }
+
+    static int square(final int file, final int rank) {
+        return (7 - rank) * 8 + file;
+    }
+
+    static int index(final Piece.PieceType pieceType,
+                     final int sideToMove,
+                     final int strongKing,
+                     final int weakKing,
+                     final int piece) {
+        if (pieceType == Piece.PieceType.PAWN) {
+            return pawnIndex(sideToMove, strongKing, weakKing, piece);
+        }
+        return pawnlessIndex(sideToMove, strongKing, weakKing, piece);
+    }
+
+    private static int pawnIndex(final int sideToMove, int strongKing, int weakKing, int pawn) {
+        if (file(pawn) > 3) {
+            strongKing ^= 7;
+            weakKing ^= 7;
+            pawn ^= 7;
+        }
+        final int pawnSlot = file(pawn) * 6 + rank(pawn) - 1;
+        return ((sideToMove * 24 + pawnSlot) * 64 + strongKing) * 64 + weakKing;
+    }
+
+    private static int pawnlessIndex(final int sideToMove, int strongKing, int weakKing, int piece) {
+        if (file(strongKing) > 3) {
+            strongKing ^= 7;
+            weakKing ^= 7;
+            piece ^= 7;
+        }
+        if (rank(strongKing) > 3) {
+            strongKing ^= 56;
+            weakKing ^= 56;
+            piece ^= 56;
+        }
+        if (file(strongKing) > rank(strongKing)) {
+            strongKing = transpose(strongKing);
+            weakKing = transpose(weakKing);
+            piece = transpose(piece);
+        }
+        return ((sideToMove * TRIANGLE_SQUARES.length + TRIANGLE_INDEX[strongKing]) * 64 + weakKing) * 64 + piece;
+    }
+
+    /*
+     * Decodes an index into {sideToMove, strongKing, weakKing, piece}.
+     */
+    static void decode(final Piece.PieceType pieceType, int index, final int[] position) {
+        if (pieceType == Piece.PieceType.PAWN) {
+            position[2] = index & 63;
+            index >>>= 6;
+            position[1] = index & 63;
+            index >>>= 6;
+            final int pawnSlot = index % 24;
+            position[3] = square(pawnSlot / 6, pawnSlot % 6 + 1);
+            position[0] = index / 24;
+        } else {
+            position[3] = index & 63;
+            index >>>= 6;
+            position[2] = index & 63;
+            index >>>= 6;
+            position[1] = TRIANGLE_SQUARES[index % TRIANGLE_SQUARES.length];
+            position[0] = index / TRIANGLE_SQUARES.length;
+        }
+    }
+
+    private static int transpose(final int square) {
+        return square(rank(square), file(square));
+    }
+
+    private static int[] initTriangleSquares() {
+        final int[] squares = new int[10];
+        int i = 0;
+        for (int rank = 0; rank < 4; rank++) {
+            for (int file = 0; file <= rank; file++) {
+                squares[i++] = square(file, rank);
+            }
+        }
+        return squares;
+    }
+
+    private static int[] initTriangleIndex() {
+        final int[] index = new int[64];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < TRIANGLE_SQUARES.length; i++) {
+            index[TRIANGLE_SQUARES[i]] = i;
+        }
+        return index;
+    }
+}
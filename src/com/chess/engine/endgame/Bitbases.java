@@ -0,0 +1,47 @@
+package com.chess.engine.endgame;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+ * Class holding every bitbase found in a directory and dispatching probes
+ * to the one matching the board's material.
+ */
+public final class Bitbases {
+
+    private final Map<Piece.PieceType, Bitbase> bitbases;
+
+    private Bitbases(final Map<Piece.PieceType, Bitbase> bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    public static Bitbases open(final Path directory) throws IOException {
+        final Map<Piece.PieceType, Bitbase> bitbases = new EnumMap<>(Piece.PieceType.class);
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            final Path file = directory.resolve(BitbaseGenerator.fileName(pieceType));
+            if (!pieceType.isKing() && Files.isRegularFile(file)) {
+                bitbases.put(pieceType, Bitbase.open(file));
+            }
+        }
+        return new Bitbases(bitbases);
+    }
+
+    public Bitbase.BitbaseResult probe(final Board board) {
+        if (board.getWhitePieces().size() + board.getBlackPieces().size() != 3) {
+            return Bitbase.BitbaseResult.UNKNOWN;
+        }
+        for (final Piece piece : board.getWhitePieces().size() == 2 ? board.getWhitePieces() : board.getBlackPieces()) {
+            if (!piece.getPieceType().isKing()) {
+                final Bitbase bitbase = this.bitbases.get(piece.getPieceType());
+                return bitbase != null ? bitbase.probe(board) : Bitbase.BitbaseResult.UNKNOWN;
+            }
+        }
+        return Bitbase.BitbaseResult.UNKNOWN;
+    }
+}
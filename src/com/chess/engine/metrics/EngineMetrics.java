@@ -0,0 +1,200 @@
+package com.chess.engine.metrics;
+
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.MoveStatus;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Class collecting engine wide counters. Collection is switched on with
+ * -Dchess.metrics=true; every record method tests the static final flag
+ * first, so when it is off the JIT folds the calls away. Counters are
+ * striped LongAdders, so hot paths on many threads do not contend.
+ * When enabled the counters are published as an MBean under
+ * com.chess.engine:type=EngineMetrics.
+ */
+public final class EngineMetrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("chess.metrics");
+
+    /*
+     * Requests slower than this are reported as SlowRequestEvent.
+     */
+    public static final long SLOW_REQUEST_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("chess.metrics.slowRequestMillis", 250L));
+
+    private static final String OBJECT_NAME = "com.chess.engine:type=EngineMetrics";
+
+    private static final LongAdder BOARDS_CONSTRUCTED = new LongAdder();
+    private static final LongAdder MOVES_EXECUTED = new LongAdder();
+    private static final LongAdder[] MOVES_GENERATED = newAdders(PieceType.values().length);
+    private static final LongAdder[] MAKE_MOVE_OUTCOMES = newAdders(MoveStatus.values().length);
+    private static final LongAdder TRANSPOSITION_PROBES = new LongAdder();
+    private static final LongAdder TRANSPOSITION_HITS = new LongAdder();
+    private static final LongAdder EVALUATIONS = new LongAdder();
+    private static final LongAdder EVALUATION_CACHE_PROBES = new LongAdder();
+    private static final LongAdder EVALUATION_CACHE_HITS = new LongAdder();
+    private static final LongAdder SEARCHES = new LongAdder();
+    private static final LongAdder NODES_SEARCHED = new LongAdder();
+    private static final LongAdder SEARCH_NANOS = new LongAdder();
+
+    static {
+        if (ENABLED) {
+            register();
+        }
+    }
+
+    private EngineMetrics() {
+        throw new RuntimeException("You cant instantiate a Utility Class.");
+    }
+
+    public static void recordBoardConstructed() {
+        if (ENABLED) {
+            BOARDS_CONSTRUCTED.increment();
+        }
+    }
+
+    public static void recordMoveExecuted() {
+        if (ENABLED) {
+            MOVES_EXECUTED.increment();
+        }
+    }
+
+    public static void recordMovesGenerated(final PieceType pieceType, final int count) {
+        if (ENABLED) {
+            MOVES_GENERATED[pieceType.ordinal()].add(count);
+        }
+    }
+
+    public static void recordMakeMove(final MoveStatus moveStatus) {
+        if (ENABLED) {
+            MAKE_MOVE_OUTCOMES[moveStatus.ordinal()].increment();
+        }
+    }
+
+    public static void recordTranspositionProbe(final boolean hit) {
+        if (ENABLED) {
+            TRANSPOSITION_PROBES.increment();
+            if (hit) {
+                TRANSPOSITION_HITS.increment();
+            }
+        }
+    }
+
+    public static void recordEvaluation() {
+        if (ENABLED) {
+            EVALUATIONS.increment();
+        }
+    }
+
+    public static void recordEvaluationCacheProbe(final boolean hit) {
+        if (ENABLED) {
+            EVALUATION_CACHE_PROBES.increment();
+            if (hit) {
+                EVALUATION_CACHE_HITS.increment();
+            }
+        }
+    }
+
+    public static void recordSearch(final long nodes, final long nanos) {
+        if (ENABLED) {
+            SEARCHES.increment();
+            NODES_SEARCHED.add(nodes);
+            SEARCH_NANOS.add(nanos);
+        }
+    }
+
+    public static long getBoardsConstructed() {
+        return BOARDS_CONSTRUCTED.sum();
+    }
+
+    public static long getMovesExecuted() {
+        return MOVES_EXECUTED.sum();
+    }
+
+    public static long getMovesGenerated(final PieceType pieceType) {
+        return MOVES_GENERATED[pieceType.ordinal()].sum();
+    }
+
+    public static long getMakeMoveOutcomes(final MoveStatus moveStatus) {
+        return MAKE_MOVE_OUTCOMES[moveStatus.ordinal()].sum();
+    }
+
+    public static long getTranspositionProbes() {
+        return TRANSPOSITION_PROBES.sum();
+    }
+
+    public static long getTranspositionHits() {
+        return TRANSPOSITION_HITS.sum();
+    }
+
+    public static long getEvaluations() {
+        return EVALUATIONS.sum();
+    }
+
+    public static long getEvaluationCacheProbes() {
+        return EVALUATION_CACHE_PROBES.sum();
+    }
+
+    public static long getEvaluationCacheHits() {
+        return EVALUATION_CACHE_HITS.sum();
+    }
+
+    public static long getSearches() {
+        return SEARCHES.sum();
+    }
+
+    public static long getNodesSearched() {
+        return NODES_SEARCHED.sum();
+    }
+
+    public static long getSearchNanos() {
+        return SEARCH_NANOS.sum();
+    }
+
+    public static void reset() {
+        BOARDS_CONSTRUCTED.reset();
+        MOVES_EXECUTED.reset();
+        for (final LongAdder adder : MOVES_GENERATED) {
+            adder.reset();
+        }
+        for (final LongAdder adder : MAKE_MOVE_OUTCOMES) {
+            adder.reset();
+        }
+        TRANSPOSITION_PROBES.reset();
+        TRANSPOSITION_HITS.reset();
+        EVALUATIONS.reset();
+        EVALUATION_CACHE_PROBES.reset();
+        EVALUATION_CACHE_HITS.reset();
+        SEARCHES.reset();
+        NODES_SEARCHED.reset();
+        SEARCH_NANOS.reset();
+    }
+
+    /*
+     * Registers the MBean with the platform server. Called automatically
+     * when metrics are enabled; calling it again is harmless.
+     */
+    public static synchronized void register() {
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new EngineMetricsView(), name);
+            }
+        } catch (final JMException e) {
+            throw new RuntimeException("Could not register engine metrics", e);
+        }
+    }
+
+    private static LongAdder[] newAdders(final int count) {
+        final LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,45 @@
+package com.chess.engine.metrics;
+
+/*
+ * Management interface exposing the engine counters over JMX.
+ */
+public interface EngineMetricsMXBean {
+
+    long getBoardsConstructed();
+
+    long getMovesExecuted();
+
+    long getPawnMovesGenerated();
+
+    long getKnightMovesGenerated();
+
+    long getBishopMovesGenerated();
+
+    long getRookMovesGenerated();
+
+    long getQueenMovesGenerated();
+
+    long getKingMovesGenerated();
+
+    long getMovesDone();
+
+    long getMovesIllegal();
+
+    long getMovesLeavingKingInCheck();
+
+    long getTranspositionProbes();
+
+    double getTranspositionHitRate();
+
+    long getEvaluations();
+
+    double getEvaluationCacheHitRate();
+
+    long getSearches();
+
+    long getNodesSearched();
+
+    long getNodesPerSecond();
+
+    void reset();
+}
@@ -0,0 +1,112 @@
+package com.chess.engine.metrics;
+
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.MoveStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Class adapting the static engine counters to the JMX interface.
+ */
+final class EngineMetricsView implements EngineMetricsMXBean {
+
+    @Override
+    public long getBoardsConstructed() {
+        return EngineMetrics.getBoardsConstructed();
+    }
+
+    @Override
+    public long getMovesExecuted() {
+        return EngineMetrics.getMovesExecuted();
+    }
+
+    @Override
+    public long getPawnMovesGenerated() {
+        return EngineMetrics.getMovesGenerated(PieceType.PAWN);
+    }
+
+    @Override
+    public long getKnightMovesGenerated() {
+        return EngineMetrics.getMovesGenerated(PieceType.KNIGHT);
+    }
+
+    @Override
+    public long getBishopMovesGenerated() {
+        return EngineMetrics.getMovesGenerated(PieceType.BISHOP);
+    }
+
+    @Override
+    public long getRookMovesGenerated() {
+        return EngineMetrics.getMovesGenerated(PieceType.ROOK);
+    }
+
+    @Override
+    public long getQueenMovesGenerated() {
+        return EngineMetrics.getMovesGenerated(PieceType.QUEEN);
+    }
+
+    @Override
+    public long getKingMovesGenerated() {
+        return EngineMetrics.getMovesGenerated(PieceType.KING);
+    }
+
+    @Override
+    public long getMovesDone() {
+        return EngineMetrics.getMakeMoveOutcomes(MoveStatus.DONE);
+    }
+
+    @Override
+    public long getMovesIllegal() {
+        return EngineMetrics.getMakeMoveOutcomes(MoveStatus.ILLEGAL_MOVE);
+    }
+
+    @Override
+    public long getMovesLeavingKingInCheck() {
+        return EngineMetrics.getMakeMoveOutcomes(MoveStatus.PLAYER_IN_CHECK);
+    }
+
+    @Override
+    public long getTranspositionProbes() {
+        return EngineMetrics.getTranspositionProbes();
+    }
+
+    @Override
+    public double getTranspositionHitRate() {
+        return ratio(EngineMetrics.getTranspositionHits(), EngineMetrics.getTranspositionProbes());
+    }
+
+    @Override
+    public long getEvaluations() {
+        return EngineMetrics.getEvaluations();
+    }
+
+    @Override
+    public double getEvaluationCacheHitRate() {
+        return ratio(EngineMetrics.getEvaluationCacheHits(), EngineMetrics.getEvaluationCacheProbes());
+    }
+
+    @Override
+    public long getSearches() {
+        return EngineMetrics.getSearches();
+    }
+
+    @Override
+    public long getNodesSearched() {
+        return EngineMetrics.getNodesSearched();
+    }
+
+    @Override
+    public long getNodesPerSecond() {
+        final long nanos = EngineMetrics.getSearchNanos();
+        return nanos == 0 ? 0 : EngineMetrics.getNodesSearched() * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    @Override
+    public void reset() {
+        EngineMetrics.reset();
+    }
+
+    private static double ratio(final long part, final long whole) {
+        return whole == 0 ? 0.0 : (double) part / whole;
+    }
+}
@@ -0,0 +1,30 @@
+package com.chess.engine.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*
+ * Flight recorder event emitted for every completed iterative deepening
+ * iteration; its duration is the time spent on that iteration.
+ */
+@Name("com.chess.engine.SearchIteration")
+@Label("Search Iteration")
+@Category("Chess Engine")
+@Description("One completed iteration of an iterative deepening search")
+public final class SearchIterationEvent extends Event {
+
+    @Label("Depth")
+    public int depth;
+
+    @Label("Score")
+    public int score;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Best Move")
+    public String bestMove;
+}
@@ -0,0 +1,39 @@
+package com.chess.engine.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Flight recorder event emitted for server requests that took longer than
+ * EngineMetrics.SLOW_REQUEST_NANOS.
+ */
+@Name("com.chess.engine.SlowRequest")
+@Label("Slow Request")
+@Category("Chess Engine")
+@Description("A server request slower than the configured threshold")
+public final class SlowRequestEvent extends Event {
+
+    @Label("Command")
+    public String command;
+
+    @Label("Latency")
+    @Timespan(Timespan.MICROSECONDS)
+    public long latency;
+
+    public static void recordIfSlow(final String command, final long elapsedNanos) {
+        if (EngineMetrics.ENABLED && elapsedNanos >= EngineMetrics.SLOW_REQUEST_NANOS) {
+            final SlowRequestEvent event = new SlowRequestEvent();
+            if (event.isEnabled()) {
+                event.command = command;
+                event.latency = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.chess.engine.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.CastlingRights;
+import com.chess.engine.board.Tile;
+import com.chess.engine.pieces.Bishop;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.pieces.Rook;
+
+/*
+ * Class translating between boards and Forsyth-Edwards Notation. The
+ * halfmove clock and move number are not part of a board; they are read
+ * by getHalfmoveClock and written as "0 1".
+ */
+public class FenUtilities {
+
+    private FenUtilities() {
+        throw new RuntimeException("You cant instantiate a Utility Class.");
+    }
+
+    public static Board createGameFromFEN(final String fenString) {
+        final String[] fields = fenString.trim().split("\\s+");
+        if (fields.length < 2) {
+            throw new RuntimeException("Invalid FEN: " + fenString);
+        }
+        final String castling = fields.length > 2 ? fields[2] : "-";
+        final Board.Builder builder = new Board.Builder();
+        int coordinate = 0;
+        for (final char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                coordinate += c - '0';
+                continue;
+            }
+            if (coordinate >= BoardUtils.NUM_TILES) {
+                throw new RuntimeException("Invalid FEN placement: " + fields[0]);
+            }
+            builder.setPiece(createPiece(c, coordinate));
+            coordinate++;
+        }
+        if (coordinate != BoardUtils.NUM_TILES) {
+            throw new RuntimeException("Invalid FEN placement: " + fields[0]);
+        }
+        final Alliance moveMaker;
+        if (fields[1].equals("w")) {
+            moveMaker = Alliance.WHITE;
+        } else if (fields[1].equals("b")) {
+            moveMaker = Alliance.BLACK;
+        } else {
+            throw new RuntimeException("Invalid FEN side to move: " + fields[1]);
+        }
+        builder.setNextMoveMaker(moveMaker);
+        builder.setCastlingRights(CastlingRights.fromFen(castling));
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            // the pawn that just jumped stands one row beyond the en passant square
+            final int enPassantSquare = BoardUtils.getCoordinateAtPosition(fields[3]);
+            final int pawnCoordinate = enPassantSquare + moveMaker.getDirection() * -BoardUtils.NUM_TILES_PER_ROW;
+            final Piece pawn = builder.getPiece(pawnCoordinate);
+            if (pawn != null && pawn.getPieceType() == Piece.PieceType.PAWN && pawn.getPieceAlliance() != moveMaker) {
+                builder.setEnPassantPawn((Pawn) pawn);
+            }
+        }
+        return builder.build();
+    }
+
+    public static int getHalfmoveClock(final String fenString) {
+        final String[] fields = fenString.trim().split("\\s+");
+        return fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+    }
+
+    public static String createFENFromGame(final Board board) {
+        return calculateBoardText(board) + " " +
+                (board.currentPlayer().getAlliance().isWhite() ? "w" : "b") + " " +
+                CastlingRights.toFen(board.getCastlingRights()) + " " +
+                calculateEnPassantSquare(board) + " 0 1";
+    }
+
+    private static Piece createPiece(final char c, final int coordinate) {
+        final Alliance alliance = Character.isUpperCase(c) ? Alliance.WHITE : Alliance.BLACK;
+        switch (Character.toUpperCase(c)) {
+            case 'P':
+                return Pawn.of(coordinate, alliance);
+            case 'N':
+                return Knight.of(coordinate, alliance);
+            case 'B':
+                return Bishop.of(coordinate, alliance);
+            case 'Q':
+                return Queen.of(coordinate, alliance);
+            case 'R':
+                return Rook.of(coordinate, alliance);
+            case 'K':
+                return King.of(coordinate, alliance);
+            default:
+                throw new RuntimeException("Invalid FEN piece: " + c);
+        }
+    }
+
+    private static String calculateBoardText(final Board board) {
+        final StringBuilder text = new StringBuilder();
+        int emptyTiles = 0;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Tile tile = board.getTile(i);
+            if (tile.isTileOccupied()) {
+                if (emptyTiles > 0) {
+                    text.append(emptyTiles);
+                    emptyTiles = 0;
+                }
+                text.append(tile.toString());
+            } else {
+                emptyTiles++;
+            }
+            if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                if (emptyTiles > 0) {
+                    text.append(emptyTiles);
+                    emptyTiles = 0;
+                }
+                if (i + 1 < BoardUtils.NUM_TILES) {
+                    text.append('/');
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static String calculateEnPassantSquare(final Board board) {
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn == null) {
+            return "-";
+        }
+        return BoardUtils.getPositionAtCoordinate(enPassantPawn.getPiecePosition() -
+                enPassantPawn.getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW);
+    }
+}
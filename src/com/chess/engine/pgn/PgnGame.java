@@ -0,0 +1,70 @@
+package com.chess.engine.pgn;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Class describing a single game read from a PGN file: its tag pairs,
+ * its main line in standard algebraic notation and its result.
+ */
+public final class PgnGame {
+
+    private final Map<String, String> tags;
+    private final List<String> moves;
+    private final GameResult result;
+
+    public PgnGame(final Map<String, String> tags,
+                   final List<String> moves,
+                   final GameResult result) {
+        this.tags = ImmutableMap.copyOf(tags);
+        this.moves = ImmutableList.copyOf(moves);
+        this.result = result;
+    }
+
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    public List<String> getMoves() {
+        return this.moves;
+    }
+
+    public GameResult getResult() {
+        return this.result;
+    }
+
+    @Override
+    public String toString() {
+        return this.tags + " " + this.moves + " " + this.result;
+    }
+
+    public enum GameResult {
+        WHITE_WINS("1-0"),
+        BLACK_WINS("0-1"),
+        DRAW("1/2-1/2"),
+        UNKNOWN("*");
+
+        private final String notation;
+
+        GameResult(final String notation) {
+            this.notation = notation;
+        }
+
+        public static GameResult fromNotation(final String notation) {
+            for (final GameResult result : values()) {
+                if (result.notation.equals(notation)) {
+                    return result;
+                }
+            }
+            return UNKNOWN;
+        }
+
+        @Override
+        public String toString() {
+            return this.notation;
+        }
+    }
+}
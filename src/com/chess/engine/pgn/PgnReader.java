@@ -0,0 +1,158 @@
+package com.chess.engine.pgn;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Class reading games one at a time from a PGN stream. Comments, variations,
+ * numeric annotation glyphs and move numbers are skipped; only the main line
+ * is kept.
+ */
+public final class PgnReader implements Closeable {
+
+    private final BufferedReader reader;
+    private int pushback = -2;
+
+    public PgnReader(final Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+    }
+
+    /*
+     * Returns the next game, or null once the stream is exhausted.
+     */
+    public PgnGame readGame() throws IOException {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        final List<String> moves = new ArrayList<>();
+        PgnGame.GameResult result = PgnGame.GameResult.UNKNOWN;
+        int variationDepth = 0;
+        boolean inMoveText = false;
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '[' && variationDepth == 0) {
+                if (inMoveText) {
+                    unread(c);
+                    break;
+                }
+                readTag(tags);
+            } else if (c == '{') {
+                skipUntil('}');
+            } else if (c == ';') {
+                skipUntil('\n');
+            } else if (c == '(') {
+                variationDepth++;
+            } else if (c == ')') {
+                variationDepth--;
+            } else if (!Character.isWhitespace(c)) {
+                final String token = readToken(c);
+                if (variationDepth > 0 || token.isEmpty() || token.charAt(0) == '$') {
+                    continue;
+                }
+                inMoveText = true;
+                if (isResult(token)) {
+                    result = PgnGame.GameResult.fromNotation(token);
+                    break;
+                }
+                final String move = stripMoveNumber(token);
+                if (!move.isEmpty()) {
+                    moves.add(move);
+                }
+            }
+        }
+        if (tags.isEmpty() && moves.isEmpty()) {
+            return null;
+        }
+        return new PgnGame(tags, moves, result);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private void readTag(final Map<String, String> tags) throws IOException {
+        final StringBuilder name = new StringBuilder();
+        int c;
+        while ((c = read()) != -1 && c != '"' && c != ']') {
+            if (!Character.isWhitespace(c)) {
+                name.append((char) c);
+            }
+        }
+        final StringBuilder value = new StringBuilder();
+        if (c == '"') {
+            while ((c = read()) != -1 && c != '"') {
+                if (c == '\\') {
+                    c = read();
+                }
+                value.append((char) c);
+            }
+            skipUntil(']');
+        }
+        tags.put(name.toString(), value.toString());
+    }
+
+    private String readToken(final int first) throws IOException {
+        final StringBuilder token = new StringBuilder();
+        token.append((char) first);
+        int c;
+        while ((c = read()) != -1 && !Character.isWhitespace(c) && c != '{' && c != '(' &&
+                c != ')' && c != ';' && c != '[') {
+            token.append((char) c);
+        }
+        if (c != -1) {
+            unread(c);
+        }
+        return token.toString();
+    }
+
+    private static String stripMoveNumber(final String token) {
+        if (token.startsWith("0-0")) {
+            return stripAnnotation(token);
+        }
+        int i = 0;
+        while (i < token.length() && (Character.isDigit(token.charAt(i)) || token.charAt(i) == '.')) {
+            i++;
+        }
+        if (i == token.length() || i == 0) {
+            return i == 0 ? stripAnnotation(token) : "";
+        }
+        return stripAnnotation(token.substring(i));
+    }
+
+    private static String stripAnnotation(final String move) {
+        int end = move.length();
+        while (end > 0 && (move.charAt(end - 1) == '!' || move.charAt(end - 1) == '?')) {
+            end--;
+        }
+        return move.substring(0, end);
+    }
+
+    private static boolean isResult(final String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    private void skipUntil(final int terminator) throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != terminator) {
+            // skip
+        }
+    }
+
+    private int read() throws IOException {
+        if (this.pushback != -2) {
+            final int c = this.pushback;
+            this.pushback = -2;
+            return c;
+        }
+        return this.reader.read();
+    }
+
+    private void unread(final int c) {
+        this.pushback = c;
+    }
+}
@@ -0,0 +1,200 @@
+package com.chess.engine.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.MoveTransition;
+
+/*
+ * Class translating between standard algebraic notation and moves.
+ */
+public class PgnUtilities {
+
+    private PgnUtilities() {
+        throw new RuntimeException("You cant instantiate a Utility Class.");
+    }
+
+    /*
+     * Resolves a SAN move such as "Nbd7", "exd8=Q+" or "O-O" against the legal
+     * moves of the side to move. Returns the null move if nothing matches.
+     */
+    public static Move createMove(final Board board, final String san) {
+        final String notation = stripCheck(san);
+        if (notation.equals("O-O") || notation.equals("0-0")) {
+            return findCastle(board, true);
+        }
+        if (notation.equals("O-O-O") || notation.equals("0-0-0")) {
+            return findCastle(board, false);
+        }
+
+        int end = notation.length();
+        Piece.PieceType promotionType = null;
+        final int promotionIndex = notation.indexOf('=');
+        if (promotionIndex > 0) {
+            promotionType = pieceTypeForLetter(notation.charAt(promotionIndex + 1));
+            end = promotionIndex;
+        } else if (end > 2 && Character.isUpperCase(notation.charAt(end - 1)) &&
+                Character.isDigit(notation.charAt(end - 2))) {
+            promotionType = pieceTypeForLetter(notation.charAt(end - 1));
+            end--;
+        }
+        if (end < 2) {
+            return MoveFactory.getNullMove();
+        }
+
+        final int destinationCoordinate = BoardUtils.getCoordinateAtPosition(notation.substring(end - 2, end));
+        int start = 0;
+        Piece.PieceType pieceType = Piece.PieceType.PAWN;
+        if (Character.isUpperCase(notation.charAt(0))) {
+            pieceType = pieceTypeForLetter(notation.charAt(0));
+            start = 1;
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            final char c = notation.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = BoardUtils.NUM_TILES_PER_ROW - 1 - (c - '1');
+            }
+        }
+
+        Move candidate = MoveFactory.getNullMove();
+        int matches = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final int currentCoordinate = move.getCurrentDestination();
+            if (move.getDestinationCoordinate() != destinationCoordinate ||
+                    move.getMovedPiece().getPieceType() != pieceType ||
+                    move.isCastlingMove() ||
+                    (fromFile >= 0 && currentCoordinate % BoardUtils.NUM_TILES_PER_ROW != fromFile) ||
+                    (fromRank >= 0 && currentCoordinate / BoardUtils.NUM_TILES_PER_ROW != fromRank) ||
+                    promotionTypeOf(move) != promotionType) {
+                continue;
+            }
+            // SAN only disambiguates between legal moves, so drop moves that leave the king in check
+            if (board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                candidate = move;
+                matches++;
+            }
+        }
+        return matches == 1 ? candidate : MoveFactory.getNullMove();
+    }
+
+    /*
+     * Writes a legal move of the side to move in SAN, with the minimal file or
+     * rank disambiguation and a check or mate suffix.
+     */
+    public static String toSan(final Board board, final Move move) {
+        final MoveTransition transition = board.currentPlayer().makeMove(move);
+        if (!transition.getMoveStatus().isDone()) {
+            throw new RuntimeException("Cannot write an illegal move: " + MoveUtils.toCoordinateNotation(move));
+        }
+        final StringBuilder san = new StringBuilder();
+        if (move.isCastlingMove()) {
+            san.append(move instanceof Move.KingSideCastleMove ? "O-O" : "O-O-O");
+        } else {
+            final Piece movedPiece = move.getMovedPiece();
+            final String from = BoardUtils.getPositionAtCoordinate(move.getCurrentDestination());
+            if (movedPiece.getPieceType() == Piece.PieceType.PAWN) {
+                if (move.isAttack()) {
+                    san.append(from.charAt(0));
+                }
+            } else {
+                san.append(movedPiece.getPieceType().toString());
+                san.append(disambiguation(board, move, from));
+            }
+            if (move.isAttack()) {
+                san.append('x');
+            }
+            san.append(BoardUtils.getPositionAtCoordinate(move.getDestinationCoordinate()));
+            final Piece.PieceType promotionType = promotionTypeOf(move);
+            if (promotionType != null) {
+                san.append('=').append(promotionType.toString());
+            }
+        }
+        final Board transitionBoard = transition.getTransitionBoard();
+        if (transitionBoard.currentPlayer().isInCheckMate()) {
+            san.append('#');
+        } else if (transitionBoard.currentPlayer().isInCheck()) {
+            san.append('+');
+        }
+        return san.toString();
+    }
+
+    private static String disambiguation(final Board board, final Move move, final String from) {
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (final Move other : board.currentPlayer().getLegalMoves()) {
+            if (other.getDestinationCoordinate() != move.getDestinationCoordinate() ||
+                    other.getCurrentDestination() == move.getCurrentDestination() ||
+                    other.isCastlingMove() ||
+                    other.getMovedPiece().getPieceType() != move.getMovedPiece().getPieceType() ||
+                    !board.currentPlayer().makeMove(other).getMoveStatus().isDone()) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= other.getCurrentDestination() % BoardUtils.NUM_TILES_PER_ROW ==
+                    move.getCurrentDestination() % BoardUtils.NUM_TILES_PER_ROW;
+            sameRank |= other.getCurrentDestination() / BoardUtils.NUM_TILES_PER_ROW ==
+                    move.getCurrentDestination() / BoardUtils.NUM_TILES_PER_ROW;
+        }
+        if (!ambiguous) {
+            return "";
+        }
+        if (!sameFile) {
+            return from.substring(0, 1);
+        }
+        if (!sameRank) {
+            return from.substring(1, 2);
+        }
+        return from;
+    }
+
+    private static Move findCastle(final Board board, final boolean kingSide) {
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.isCastlingMove() &&
+                    (move instanceof Move.KingSideCastleMove) == kingSide) {
+                return move;
+            }
+        }
+        return MoveFactory.getNullMove();
+    }
+
+    private static Piece.PieceType promotionTypeOf(final Move move) {
+        if (move instanceof Move.PawnPromotion) {
+            return ((Move.PawnPromotion) move).getPromotionPiece().getPieceType();
+        }
+        return null;
+    }
+
+    private static String stripCheck(final String san) {
+        int end = san.length();
+        while (end > 0 && (san.charAt(end - 1) == '+' || san.charAt(end - 1) == '#' ||
+                san.charAt(end - 1) == '!' || san.charAt(end - 1) == '?')) {
+            end--;
+        }
+        return san.substring(0, end);
+    }
+
+    private static Piece.PieceType pieceTypeForLetter(final char letter) {
+        switch (letter) {
+            case 'N':
+                return Piece.PieceType.KNIGHT;
+            case 'B':
+                return Piece.PieceType.BISHOP;
+            case 'R':
+                return Piece.PieceType.ROOK;
+            case 'Q':
+                return Piece.PieceType.QUEEN;
+            case 'K':
+                return Piece.PieceType.KING;
+            default:
+                throw new RuntimeException("Unknown piece letter " + letter);
+        }
+    }
+}
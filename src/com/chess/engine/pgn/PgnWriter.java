@@ -0,0 +1,63 @@
+package com.chess.engine.pgn;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Class writing games in PGN export format: tag pairs, then the move text
+ * with move numbers, wrapped below 80 columns, ending with the result.
+ */
+public final class PgnWriter implements Closeable, Flushable {
+
+    private static final int MAX_LINE_LENGTH = 79;
+
+    private final Writer writer;
+
+    public PgnWriter(final Writer writer) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, 1 << 16);
+    }
+
+    public void writeGame(final PgnGame game) throws IOException {
+        for (final Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            this.writer.write('[' + tag.getKey() + " \"" +
+                    tag.getValue().replace("\\", "\\\\").replace("\"", "\\\"") + "\"]\n");
+        }
+        this.writer.write('\n');
+        final StringBuilder line = new StringBuilder();
+        final List<String> moves = game.getMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            final String token = i % 2 == 0 ? (i / 2 + 1) + ". " + moves.get(i) : moves.get(i);
+            appendToken(line, token);
+        }
+        appendToken(line, game.getResult().toString());
+        this.writer.write(line.toString());
+        this.writer.write("\n\n");
+    }
+
+    private void appendToken(final StringBuilder line, final String token) throws IOException {
+        if (line.length() > 0 && line.length() + 1 + token.length() > MAX_LINE_LENGTH) {
+            this.writer.write(line.toString());
+            this.writer.write('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(token);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+}
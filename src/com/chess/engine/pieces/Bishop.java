@@ -2,7 +2,7 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Mailbox;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 import com.google.common.collect.ImmutableList;
@@ -18,10 +18,16 @@ import static com.chess.engine.board.Move.*;
  */
 public class Bishop extends Piece {
 
-    private static final int[] CANDIDATE_MOVE_VECTOR_COORDINATE = {-9, -7, 7, 9};
+    Bishop(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.BISHOP, piecePosition, pieceAlliance, isFirstMove);
+    }
+
+    public static Bishop of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
 
-    public Bishop(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.BISHOP, piecePosition, pieceAlliance);
+    public static Bishop of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (Bishop) create(PieceType.BISHOP, pieceAlliance, piecePosition, isFirstMove);
     }
 
     @Override
@@ -29,28 +35,22 @@ public class Bishop extends Piece {
 
         final List<Move> legalMoves = new ArrayList<>();
 
-        for (final int currentCandidateOffset : CANDIDATE_MOVE_VECTOR_COORDINATE) {
-            int candidateDestinationCoordinate = this.piecePosition;
-
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                if (isFirstColumnExclusive(this.piecePosition, currentCandidateOffset) ||
-                        isEightColumnExclusive(this.piecePosition, currentCandidateOffset)) {
-                    break;
-                }
-                candidateDestinationCoordinate += currentCandidateOffset;
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        legalMoves.add(new RegularMove(board, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break;
+        for (final int currentCandidateOffset : Mailbox.BISHOP_OFFSETS) {
+            int candidateDestinationSquare = Mailbox.toSquare(this.piecePosition) + currentCandidateOffset;
+            int candidateDestinationCoordinate;
+            while ((candidateDestinationCoordinate = Mailbox.toTile(candidateDestinationSquare)) != Mailbox.OFF_BOARD) {
+                final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
+                if (!candidateDestinationTile.isTileOccupied()) {
+                    legalMoves.add(new RegularMove(board, this, candidateDestinationCoordinate));
+                } else {
+                    final Piece pieceAtDestination = candidateDestinationTile.getPiece();
+                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
+                    if (this.pieceAlliance != pieceAlliance) {
+                        legalMoves.add(new AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
                     }
+                    break;
                 }
+                candidateDestinationSquare += currentCandidateOffset;
             }
         }
         return ImmutableList.copyOf(legalMoves);
@@ -58,19 +58,11 @@ public class Bishop extends Piece {
 
     @Override
     public Bishop movePiece(Move move) {
-        return new Bishop(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return Bishop.of(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
     @Override
     public String toString() {
         return PieceType.BISHOP.toString();
     }
-
-    private boolean isFirstColumnExclusive(final int piecePosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[piecePosition] && (candidateOffset == -9 || candidateOffset == 7);
-    }
-
-    private boolean isEightColumnExclusive(int piecePosition, int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[piecePosition] && (candidateOffset == -7 || candidateOffset == 9);
-    }
 }
@@ -2,7 +2,7 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Mailbox;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 import com.google.common.collect.ImmutableList;
@@ -16,24 +16,25 @@ import java.util.List;
  */
 public class King extends Piece {
 
-    public static final int[] CANDIDATE_MOVE_COORDINATE = {-9, -8, -7, -1, 1, 7, 8, 9};
+    King(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.KING, piecePosition, pieceAlliance, isFirstMove);
+    }
+
+    public static King of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
 
-    public King(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.KING, piecePosition, pieceAlliance);
+    public static King of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (King) create(PieceType.KING, pieceAlliance, piecePosition, isFirstMove);
     }
 
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
 
-        for (final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATE) {
-            final int candidateDestinationCoordinate;
-            candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
-            if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                if (isFirstColumnExclusive(this.piecePosition, currentCandidateOffset) ||
-                        isEighthColumnExclusive(this.piecePosition, currentCandidateOffset)) {
-                    continue;
-                }
+        for (final int currentCandidateOffset : Mailbox.KING_OFFSETS) {
+            final int candidateDestinationCoordinate = Mailbox.step(this.piecePosition, currentCandidateOffset);
+            if (candidateDestinationCoordinate != Mailbox.OFF_BOARD) {
                 final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
                 if (!candidateDestinationTile.isTileOccupied()) {
                     legalMoves.add(new Move.RegularMove(board, this, candidateDestinationCoordinate));
@@ -51,22 +52,11 @@ public class King extends Piece {
 
     @Override
     public King movePiece(Move move) {
-        return new King(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return King.of(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
     @Override
     public String toString() {
         return PieceType.KING.toString();
     }
-
-    private static boolean isFirstColumnExclusive(final int piecePosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[piecePosition] && (candidateOffset == -9 || candidateOffset == 7 ||
-                candidateOffset == -1);
-    }
-
-    private static boolean isEighthColumnExclusive(final int piecePosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[piecePosition] && (candidateOffset == 9 || candidateOffset == -7 ||
-                candidateOffset == 1);
-    }
-
 }
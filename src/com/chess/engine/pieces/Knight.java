@@ -2,7 +2,7 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Mailbox;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 import com.google.common.collect.ImmutableList;
@@ -18,10 +18,16 @@ import static com.chess.engine.board.Move.*;
  */
 public class Knight extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATE = {-17, -15, -10, -6, 6, 10, 15, 17};
+    Knight(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.KNIGHT, piecePosition, pieceAlliance, isFirstMove);
+    }
+
+    public static Knight of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
 
-    public Knight(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.KNIGHT, piecePosition, pieceAlliance);
+    public static Knight of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (Knight) create(PieceType.KNIGHT, pieceAlliance, piecePosition, isFirstMove);
     }
 
     @Override
@@ -29,16 +35,9 @@ public class Knight extends Piece {
 
         final List<Move> legalMoves = new ArrayList<>();
 
-        for (final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATE) {
-            final int candidateDestinationCoordinate;
-            candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
-            if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                if (isFirstColumnExclusive(this.piecePosition, currentCandidateOffset) ||
-                        isSecondColumnExclusive(this.piecePosition, currentCandidateOffset) ||
-                        isSeventhColumnExclusive(this.piecePosition, currentCandidateOffset) ||
-                        isEighthColumnExclusive(this.piecePosition, currentCandidateOffset)) {
-                    continue;
-                }
+        for (final int currentCandidateOffset : Mailbox.KNIGHT_OFFSETS) {
+            final int candidateDestinationCoordinate = Mailbox.step(this.piecePosition, currentCandidateOffset);
+            if (candidateDestinationCoordinate != Mailbox.OFF_BOARD) {
                 final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
                 if (!candidateDestinationTile.isTileOccupied()) {
                     legalMoves.add(new RegularMove(board, this, candidateDestinationCoordinate));
@@ -56,7 +55,7 @@ public class Knight extends Piece {
 
     @Override
     public Knight movePiece(Move move) {
-        return new Knight(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return Knight.of(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
     @Override
@@ -64,23 +63,4 @@ public class Knight extends Piece {
         return PieceType.KNIGHT.toString();
     }
 
-    private static boolean isFirstColumnExclusive(final int piecePosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[piecePosition] && (candidateOffset == -17 || candidateOffset == -10 ||
-                candidateOffset == 6 || candidateOffset == 15);
-    }
-
-    private static boolean isSecondColumnExclusive(final int piecePosition, final int candidateOffset) {
-        return BoardUtils.SECOND_COLUMN[piecePosition] && (candidateOffset == -10 || candidateOffset == 6);
-    }
-
-    private static boolean isSeventhColumnExclusive(final int piecePosition, final int candidateOffset) {
-        return BoardUtils.SEVENTH_COLUMN[piecePosition] && (candidateOffset == 10 || candidateOffset == -6);
-    }
-
-    private static boolean isEighthColumnExclusive(final int piecePosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[piecePosition] && (candidateOffset == 17 || candidateOffset == 10 ||
-                candidateOffset == -6 || candidateOffset == -15);
-    }
-
-
 }
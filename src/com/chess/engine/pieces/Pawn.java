@@ -3,6 +3,7 @@ package com.chess.engine.pieces;
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Mailbox;
 import com.chess.engine.board.Move;
 import com.google.common.collect.ImmutableList;
 
@@ -16,10 +17,20 @@ import static com.chess.engine.board.Move.*;
  * Class describing the King piece and it's properties.
  */
 public class Pawn extends Piece {
-    private static final int[] CANDIDATE_MOVE_COORDINATE = {8, 16};
+    private static final int[] CANDIDATE_MOVE_COORDINATE = {8, 16, 7, 9};
+    // the same moves as mailbox offsets
+    private static final int[] CANDIDATE_MAILBOX_OFFSET = {10, 20, 9, 11};
 
-    public Pawn(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.PAWN, piecePosition, pieceAlliance);
+    Pawn(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.PAWN, piecePosition, pieceAlliance, isFirstMove);
+    }
+
+    public static Pawn of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
+
+    public static Pawn of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (Pawn) create(PieceType.PAWN, pieceAlliance, piecePosition, isFirstMove);
     }
 
     @Override
@@ -27,53 +38,74 @@ public class Pawn extends Piece {
 
         final List<Move> legalMoves = new ArrayList<>();
 
-        for (int currentCandidateOffset : CANDIDATE_MOVE_COORDINATE) {
+        for (int i = 0; i < CANDIDATE_MOVE_COORDINATE.length; i++) {
 
-            final int candidateDestinationCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * currentCandidateOffset);
-            if (!BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
+            final int currentCandidateOffset = CANDIDATE_MOVE_COORDINATE[i];
+            final int candidateDestinationCoordinate = Mailbox.step(this.piecePosition,
+                    this.pieceAlliance.getDirection() * CANDIDATE_MAILBOX_OFFSET[i]);
+            if (candidateDestinationCoordinate == Mailbox.OFF_BOARD) {
                 continue;
             }
             if (currentCandidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                //TODO: more work to be done here (on promotions!!!)
-                legalMoves.add(new RegularMove(board, this, candidateDestinationCoordinate));
+                addPawnMove(legalMoves, new PawnMove(board, this, candidateDestinationCoordinate));
             } else if (currentCandidateOffset == 16 && this.isFirstMove() &&
-                    (BoardUtils.SECOND_ROW[this.piecePosition] && this.pieceAlliance.isBlack()) ||
-                    (BoardUtils.SEVENTH_ROW[this.piecePosition] && this.pieceAlliance.isWhite())) {
+                    ((BoardUtils.SECOND_ROW[this.piecePosition] && this.pieceAlliance.isBlack()) ||
+                    (BoardUtils.SEVENTH_ROW[this.piecePosition] && this.pieceAlliance.isWhite()))) {
                 final int behindCandidateDestinationCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * 8);
 
                 if (!board.getTile(behindCandidateDestinationCoordinate).isTileOccupied() &&
                         !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    legalMoves.add(new RegularMove(board, this, candidateDestinationCoordinate));
-                }
-            } else if (currentCandidateOffset == 7 &&
-                    !((BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite()) ||
-                            (BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack()))) {
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    if (this.pieceAlliance == pieceOnCandidate.getPieceAlliance()) {
-                        //TODO: more work to be done here
-                        legalMoves.add(new RegularMove(board, this, candidateDestinationCoordinate));
-                    }
-                }
-            } else if (currentCandidateOffset == 9 &&
-                    !((BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite()) ||
-                            (BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack()))) {
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    if (this.pieceAlliance == pieceOnCandidate.getPieceAlliance()) {
-                        //TODO: more work to done here
-                        legalMoves.add(new RegularMove(board, this, candidateDestinationCoordinate));
-                    }
+                    legalMoves.add(new PawnJump(board, this, candidateDestinationCoordinate));
                 }
+            } else if (currentCandidateOffset == 7) {
+                addPawnAttacks(board, legalMoves, candidateDestinationCoordinate, this.piecePosition - this.pieceAlliance.getDirection());
+            } else if (currentCandidateOffset == 9) {
+                addPawnAttacks(board, legalMoves, candidateDestinationCoordinate, this.piecePosition + this.pieceAlliance.getDirection());
             }
         }
 
         return ImmutableList.copyOf(legalMoves);
     }
 
+    private void addPawnAttacks(final Board board,
+                                final List<Move> legalMoves,
+                                final int candidateDestinationCoordinate,
+                                final int enPassantCoordinate) {
+        if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
+            final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
+            if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
+                addPawnMove(legalMoves, new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
+            }
+        } else {
+            final Pawn enPassantPawn = board.getEnPassantPawn();
+            if (enPassantPawn != null &&
+                    enPassantPawn.getPiecePosition() == enPassantCoordinate &&
+                    enPassantPawn.getPieceAlliance() != this.pieceAlliance) {
+                legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, enPassantPawn));
+            }
+        }
+    }
+
+    /*
+     * Adds the move, or one promotion per promotable piece type when the pawn
+     * reaches the last row.
+     */
+    private void addPawnMove(final List<Move> legalMoves, final Move pawnMove) {
+        final int destinationCoordinate = pawnMove.getDestinationCoordinate();
+        if ((this.pieceAlliance.isWhite() && BoardUtils.FIRST_ROW[destinationCoordinate]) ||
+                (this.pieceAlliance.isBlack() && BoardUtils.EIGHTH_ROW[destinationCoordinate])) {
+            legalMoves.add(new PawnPromotion(pawnMove, Queen.of(destinationCoordinate, this.pieceAlliance, false)));
+            legalMoves.add(new PawnPromotion(pawnMove, Rook.of(destinationCoordinate, this.pieceAlliance, false)));
+            legalMoves.add(new PawnPromotion(pawnMove, Bishop.of(destinationCoordinate, this.pieceAlliance, false)));
+            legalMoves.add(new PawnPromotion(pawnMove, Knight.of(destinationCoordinate, this.pieceAlliance, false)));
+        } else {
+            legalMoves.add(pawnMove);
+        }
+    }
+
     @Override
     public Pawn movePiece(Move move) {
-        return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return Pawn.of(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
     @Override
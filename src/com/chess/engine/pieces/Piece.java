@@ -2,28 +2,57 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 
 import java.util.Collection;
 
 /*
  * Abstract Class describing the general information of a piece.
+ *
+ * Pieces are immutable flyweights: one instance exists per type, alliance,
+ * position and first move flag, preallocated in a flat pool and handed out
+ * by the static factories, so equal pieces are always the same instance.
  */
 public abstract class Piece {
 
+    public static final int POOL_SIZE = PieceType.values().length * Alliance.values().length * BoardUtils.NUM_TILES * 2;
+
     protected final PieceType pieceType;
     protected final int piecePosition;
     protected final Alliance pieceAlliance;
     protected final boolean isFirstMove;
     private final int cachedHashCode;
+    private final int poolIndex;
 
-
-    Piece(final PieceType pieceType, final int piecePosition, final Alliance pieceAlliance) {
+    Piece(final PieceType pieceType,
+          final int piecePosition,
+          final Alliance pieceAlliance,
+          final boolean isFirstMove) {
         this.pieceType = pieceType;
         this.piecePosition = piecePosition;
         this.pieceAlliance = pieceAlliance;
-        this.isFirstMove = false;
+        this.isFirstMove = isFirstMove;
         this.cachedHashCode = computeHashCode();
+        this.poolIndex = poolIndex(pieceType, pieceAlliance, piecePosition, isFirstMove);
+    }
+
+    /*
+     * The pooled piece with the given properties.
+     */
+    public static Piece create(final PieceType pieceType,
+                               final Alliance pieceAlliance,
+                               final int piecePosition,
+                               final boolean isFirstMove) {
+        return Pool.PIECES[poolIndex(pieceType, pieceAlliance, piecePosition, isFirstMove)];
+    }
+
+    private static int poolIndex(final PieceType pieceType,
+                                 final Alliance pieceAlliance,
+                                 final int piecePosition,
+                                 final boolean isFirstMove) {
+        return ((pieceType.ordinal() * Alliance.values().length + pieceAlliance.ordinal()) * BoardUtils.NUM_TILES + piecePosition) * 2 +
+                (isFirstMove ? 1 : 0);
     }
 
     private final int computeHashCode() {
@@ -36,15 +65,8 @@ public abstract class Piece {
 
     @Override
     public boolean equals(final Object other) {
-        if (this == other) {
-            return true;
-        }
-        if (!(other instanceof Piece)) {
-            return false;
-        }
-        final Piece otherPiece = (Piece) other;
-        return this.getPiecePosition() == otherPiece.getPiecePosition() && this.getPieceAlliance() == otherPiece.getPieceAlliance() &&
-                this.getPieceType() == otherPiece.getPieceType() && this.isFirstMove == otherPiece.isFirstMove();
+        // pooled, so equal pieces are the same instance
+        return this == other;
     }
 
     @Override
@@ -56,6 +78,10 @@ public abstract class Piece {
         return this.pieceType;
     }
 
+    public int getPieceValue() {
+        return this.pieceType.getPieceValue();
+    }
+
     public Alliance getPieceAlliance() {
         return this.pieceAlliance;
     }
@@ -68,11 +94,64 @@ public abstract class Piece {
 
     public int getPiecePosition() { return this.piecePosition; }
 
+    /*
+     * Index of this piece in the pool, below POOL_SIZE.
+     */
+    public int getPoolIndex() {
+        return this.poolIndex;
+    }
+
     public abstract Piece movePiece(Move move);
 
+    /*
+     * Holder for the pool, filled on first use so the subclasses are
+     * initialised after Piece itself.
+     */
+    private static final class Pool {
+
+        private static final Piece[] PIECES = createAllPossiblePieces();
+
+        private static Piece[] createAllPossiblePieces() {
+            final Piece[] pieces = new Piece[POOL_SIZE];
+            for (final PieceType pieceType : PieceType.values()) {
+                for (final Alliance alliance : Alliance.values()) {
+                    for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
+                        for (final boolean isFirstMove : new boolean[]{false, true}) {
+                            final Piece piece = newPiece(pieceType, alliance, position, isFirstMove);
+                            pieces[piece.getPoolIndex()] = piece;
+                        }
+                    }
+                }
+            }
+            return pieces;
+        }
+
+        private static Piece newPiece(final PieceType pieceType,
+                                      final Alliance alliance,
+                                      final int position,
+                                      final boolean isFirstMove) {
+            switch (pieceType) {
+                case BISHOP:
+                    return new Bishop(position, alliance, isFirstMove);
+                case KING:
+                    return new King(position, alliance, isFirstMove);
+                case KNIGHT:
+                    return new Knight(position, alliance, isFirstMove);
+                case PAWN:
+                    return new Pawn(position, alliance, isFirstMove);
+                case QUEEN:
+                    return new Queen(position, alliance, isFirstMove);
+                case ROOK:
+                    return new Rook(position, alliance, isFirstMove);
+                default:
+                    throw new RuntimeException("Unknown piece type " + pieceType);
+            }
+        }
+    }
+
     public enum PieceType {
 
-        BISHOP("B") {
+        BISHOP(300, "B") {
             @Override
             public boolean isKing() {
                 return false;
@@ -83,7 +162,7 @@ public abstract class Piece {
                 return false;
             }
         },
-        KING("K") {
+        KING(10000, "K") {
             @Override
             public boolean isKing() {
                 return true;
@@ -94,7 +173,7 @@ public abstract class Piece {
                 return false;
             }
         },
-        KNIGHT("N") {
+        KNIGHT(300, "N") {
             @Override
             public boolean isKing() {
                 return false;
@@ -105,7 +184,7 @@ public abstract class Piece {
                 return false;
             }
         },
-        PAWN("P") {
+        PAWN(100, "P") {
             @Override
             public boolean isKing() {
                 return false;
@@ -116,7 +195,7 @@ public abstract class Piece {
                 return false;
             }
         },
-        QUEEN("Q") {
+        QUEEN(900, "Q") {
             @Override
             public boolean isKing() {
                 return false;
@@ -127,7 +206,7 @@ public abstract class Piece {
                 return false;
             }
         },
-        ROOK("R") {
+        ROOK(500, "R") {
             @Override
             public boolean isKing() {
                 return false;
@@ -139,12 +218,18 @@ public abstract class Piece {
             }
         };
 
+        private final int pieceValue;
         private String pieceName;
 
-        PieceType(final String pieceName) {
+        PieceType(final int pieceValue, final String pieceName) {
+            this.pieceValue = pieceValue;
             this.pieceName = pieceName;
         }
 
+        public int getPieceValue() {
+            return this.pieceValue;
+        }
+
         @Override
         public String toString() {
             return this.pieceName;
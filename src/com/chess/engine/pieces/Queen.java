@@ -2,7 +2,7 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Mailbox;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 import com.google.common.collect.ImmutableList;
@@ -17,10 +17,17 @@ import static com.chess.engine.board.Move.*;
  * Class describing the Queen piece and its properties.
  */
 public class Queen extends Piece {
-    private static final int[] CANDIDATE_MOVE_VECTOR_COORDINATE = { -9, -8, -7, -1, 1, 7, 8, 9 };
 
-    public Queen(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.QUEEN, piecePosition, pieceAlliance);
+    Queen(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.QUEEN, piecePosition, pieceAlliance, isFirstMove);
+    }
+
+    public static Queen of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
+
+    public static Queen of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (Queen) create(PieceType.QUEEN, pieceAlliance, piecePosition, isFirstMove);
     }
 
     @Override
@@ -28,28 +35,22 @@ public class Queen extends Piece {
 
         final List<Move> legalMoves = new ArrayList<>();
 
-        for (final int currentCandidateOffset : CANDIDATE_MOVE_VECTOR_COORDINATE) {
-            int candidateDestinationCoordinate = this.piecePosition;
-
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                if (isFirstColumnExclusive(this.piecePosition, currentCandidateOffset) ||
-                        isEightColumnExclusive(this.piecePosition, currentCandidateOffset)) {
-                    break;
-                }
-                candidateDestinationCoordinate += currentCandidateOffset;
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        legalMoves.add(new RegularMove(board, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break;
+        for (final int currentCandidateOffset : Mailbox.QUEEN_OFFSETS) {
+            int candidateDestinationSquare = Mailbox.toSquare(this.piecePosition) + currentCandidateOffset;
+            int candidateDestinationCoordinate;
+            while ((candidateDestinationCoordinate = Mailbox.toTile(candidateDestinationSquare)) != Mailbox.OFF_BOARD) {
+                final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
+                if (!candidateDestinationTile.isTileOccupied()) {
+                    legalMoves.add(new RegularMove(board, this, candidateDestinationCoordinate));
+                } else {
+                    final Piece pieceAtDestination = candidateDestinationTile.getPiece();
+                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
+                    if (this.pieceAlliance != pieceAlliance) {
+                        legalMoves.add(new AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
                     }
+                    break;
                 }
+                candidateDestinationSquare += currentCandidateOffset;
             }
         }
         return ImmutableList.copyOf(legalMoves);
@@ -60,16 +61,8 @@ public class Queen extends Piece {
         return PieceType.QUEEN.toString();
     }
 
-    private boolean isFirstColumnExclusive(final int piecePosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[piecePosition] && (candidateOffset == -9 || candidateOffset == 7 || candidateOffset == -1);
-    }
-
-    private boolean isEightColumnExclusive(int piecePosition, int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[piecePosition] && (candidateOffset == -7 || candidateOffset == 9 || candidateOffset == 1);
-    }
-
     @Override
     public Queen movePiece(Move move) {
-        return new Queen(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return Queen.of(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 }
@@ -0,0 +1,199 @@
+package com.chess.engine.player;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*
+ * Class yielding a player's moves in search order, one stage at a time:
+ * the hash move, then captures by most valuable victim and least valuable
+ * attacker, then the killer moves, then the remaining quiet moves in
+ * generation order. Each stage is only collected when the previous one is
+ * exhausted, so a caller that stops after a cutoff never scans or orders
+ * the later stages. Moves are identified by their MoveUtils codes, so hash
+ * and killer moves may come from other boards; codes that are not among
+ * the player's moves are skipped.
+ *
+ * An instance is reusable: reset it for every node instead of allocating.
+ */
+public final class MoveIterator implements Iterator<Move> {
+
+    private static final int INITIAL_CAPTURES = 16;
+
+    private enum Stage {
+        HASH_MOVE,
+        GENERATE_CAPTURES,
+        CAPTURES,
+        KILLERS,
+        QUIETS,
+        DONE
+    }
+
+    private Collection<Move> legalMoves;
+    private int hashMoveCode;
+    private int firstKiller;
+    private int secondKiller;
+    private boolean capturesOnly;
+    private Stage stage = Stage.DONE;
+    private Move nextMove;
+
+    private Move[] captures = new Move[INITIAL_CAPTURES];
+    private int[] captureScores = new int[INITIAL_CAPTURES];
+    private int captureCount;
+    private int captureIndex;
+    private int killerIndex;
+    private Iterator<Move> quiets;
+
+    /*
+     * Starts iterating the player's moves. With capturesOnly only the hash
+     * move, if it is a capture, and the captures are yielded.
+     */
+    public MoveIterator reset(final Player player,
+                              final int hashMoveCode,
+                              final int firstKiller,
+                              final int secondKiller,
+                              final boolean capturesOnly) {
+        clear();
+        this.legalMoves = player.getLegalMoves();
+        this.hashMoveCode = hashMoveCode;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller == firstKiller ? MoveUtils.NULL_MOVE_CODE : secondKiller;
+        this.capturesOnly = capturesOnly;
+        this.stage = Stage.HASH_MOVE;
+        return this;
+    }
+
+    /*
+     * Drops the player's moves; the iterator is empty until reset.
+     */
+    public void clear() {
+        Arrays.fill(this.captures, 0, this.captureCount, null);
+        this.legalMoves = null;
+        this.quiets = null;
+        this.nextMove = null;
+        this.captureCount = 0;
+        this.captureIndex = 0;
+        this.killerIndex = 0;
+        this.stage = Stage.DONE;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.nextMove == null) {
+            this.nextMove = advance();
+        }
+        return this.nextMove != null;
+    }
+
+    @Override
+    public Move next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Move move = this.nextMove;
+        this.nextMove = null;
+        return move;
+    }
+
+    private Move advance() {
+        while (true) {
+            switch (this.stage) {
+                case HASH_MOVE:
+                    this.stage = Stage.GENERATE_CAPTURES;
+                    final Move hashMove = find(this.hashMoveCode);
+                    if (hashMove != null && (!this.capturesOnly || hashMove.isAttack())) {
+                        return hashMove;
+                    }
+                    break;
+                case GENERATE_CAPTURES:
+                    generateCaptures();
+                    this.stage = Stage.CAPTURES;
+                    break;
+                case CAPTURES:
+                    if (this.captureIndex < this.captureCount) {
+                        return nextCapture();
+                    }
+                    this.stage = this.capturesOnly ? Stage.DONE : Stage.KILLERS;
+                    break;
+                case KILLERS:
+                    while (this.killerIndex < 2) {
+                        final int killer = this.killerIndex++ == 0 ? this.firstKiller : this.secondKiller;
+                        if (killer != this.hashMoveCode) {
+                            final Move killerMove = find(killer);
+                            if (killerMove != null && !killerMove.isAttack()) {
+                                return killerMove;
+                            }
+                        }
+                    }
+                    this.quiets = this.legalMoves.iterator();
+                    this.stage = Stage.QUIETS;
+                    break;
+                case QUIETS:
+                    while (this.quiets.hasNext()) {
+                        final Move move = this.quiets.next();
+                        if (!move.isAttack()) {
+                            final int code = MoveUtils.encode(move);
+                            if (code != this.hashMoveCode && code != this.firstKiller && code != this.secondKiller) {
+                                return move;
+                            }
+                        }
+                    }
+                    this.stage = Stage.DONE;
+                    break;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private Move find(final int moveCode) {
+        if (moveCode == MoveUtils.NULL_MOVE_CODE) {
+            return null;
+        }
+        for (final Move move : this.legalMoves) {
+            if (MoveUtils.encode(move) == moveCode) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    private void generateCaptures() {
+        for (final Move move : this.legalMoves) {
+            if (move.isAttack() && MoveUtils.encode(move) != this.hashMoveCode) {
+                if (this.captureCount == this.captures.length) {
+                    this.captures = Arrays.copyOf(this.captures, 2 * this.captureCount);
+                    this.captureScores = Arrays.copyOf(this.captureScores, 2 * this.captureCount);
+                }
+                this.captures[this.captureCount] = move;
+                this.captureScores[this.captureCount++] =
+                        16 * move.getAttackedPiece().getPieceValue() - move.getMovedPiece().getPieceValue() / 100;
+            }
+        }
+    }
+
+    /*
+     * Selects the best remaining capture; ties keep generation order.
+     */
+    private Move nextCapture() {
+        final int first = this.captureIndex;
+        int best = first;
+        for (int i = first + 1; i < this.captureCount; i++) {
+            if (this.captureScores[i] > this.captureScores[best]) {
+                best = i;
+            }
+        }
+        final Move move = this.captures[best];
+        final int score = this.captureScores[best];
+        System.arraycopy(this.captures, first, this.captures, first + 1, best - first);
+        System.arraycopy(this.captureScores, first, this.captureScores, first + 1, best - first);
+        this.captures[first] = move;
+        this.captureScores[first] = score;
+        this.captureIndex++;
+        return move;
+    }
+}
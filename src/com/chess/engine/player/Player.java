@@ -2,9 +2,12 @@ package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.CastlingRights;
 import com.chess.engine.board.Move;
+import com.chess.engine.metrics.EngineMetrics;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Rook;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
@@ -18,15 +21,19 @@ public abstract class Player {
     protected final King playerKing;
     protected final Collection<Move> legalMoves;
     private final boolean isInCheck;
+    private final int castleCount;
 
     Player(final Board board,
-           final Collection<Move> legalMoves,
-           final Collection<Move> opponentMoves) {
+           final Collection<Move> legalMoves) {
 
         this.board = board;
         this.playerKing = establishKing();
-        this.legalMoves = ImmutableList.copyOf(Iterables.concat(legalMoves, calculateKingCastles(legalMoves, opponentMoves)));
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
+        this.isInCheck = board.isSquareAttacked(this.playerKing.getPiecePosition(), getAlliance().getOpponent());
+        final Collection<Move> kingCastles = calculateKingCastles();
+        this.castleCount = kingCastles.size();
+        // copyOf returns an immutable list as is, so without castles the board's list is shared
+        this.legalMoves = kingCastles.isEmpty() ? ImmutableList.copyOf(legalMoves) :
+                ImmutableList.copyOf(Iterables.concat(legalMoves, kingCastles));
     }
 
     public King getPlayerKing() {
@@ -37,23 +44,28 @@ public abstract class Player {
         return this.legalMoves;
     }
 
-    static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for (final Move move: moves) {
-            if (piecePosition == move.getDestinationCoordinate()) {
-                attackMoves.add(move);
-            }
-        }
-        return ImmutableList.copyOf(attackMoves);
+    /*
+     * Number of legal moves, counted without playing them. Castles are
+     * only generated when legal, so they all count.
+     */
+    public int countLegalMoves() {
+        return this.board.countLegalMoves(getAlliance()) + this.castleCount;
+    }
+
+    /*
+     * The legal moves in search order, generated stage by stage; see
+     * MoveIterator. Killers and the hash move are MoveUtils codes.
+     */
+    public MoveIterator moveIterator(final int hashMoveCode, final int firstKiller, final int secondKiller) {
+        return new MoveIterator().reset(this, hashMoveCode, firstKiller, secondKiller, false);
     }
 
     private King establishKing() {
-        for (final Piece piece : getActivePieces()) {
-            if (piece.getPieceType().isKing()) {
-                return (King) piece;
-            }
+        final King king = this.board.getKing(getAlliance());
+        if (king == null) {
+            throw new RuntimeException("Board is not valid!");
         }
-        throw new RuntimeException("Board is not valid!");
+        return king;
     }
 
     public abstract Collection<Piece> getActivePieces();
@@ -75,13 +87,7 @@ public abstract class Player {
     }
 
     protected boolean hasEscapeMoves() {
-        for (final Move move : legalMoves) {
-            final MoveTransition transition = makeMove(move);
-            if (transition.getMoveStatus().isDone()) {
-                return true;
-            }
-        }
-        return false;
+        return countLegalMoves() > 0;
     }
 
     public boolean isInStaleMate() {
@@ -95,21 +101,56 @@ public abstract class Player {
 
     public MoveTransition makeMove(final Move move) {
         if (!isMoveLegal(move)) {
+            EngineMetrics.recordMakeMove(MoveStatus.ILLEGAL_MOVE);
             return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
         }
 
         final Board transitionBoard = move.execute();
 
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(
-                transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-                transitionBoard.currentPlayer().getLegalMoves());
-
-        if (!kingAttacks.isEmpty()) {
+        // the mover is now the opponent on the transition board
+        if (transitionBoard.currentPlayer().getOpponent().isInCheck()) {
+            EngineMetrics.recordMakeMove(MoveStatus.PLAYER_IN_CHECK);
             return new MoveTransition (this.board, move, MoveStatus.PLAYER_IN_CHECK);
         }
 
+        EngineMetrics.recordMakeMove(MoveStatus.DONE);
         return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
     }
 
-    public abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentLegals);
+    /*
+     * Castles allowed by the board's castling rights whose path between
+     * king and rook is empty and whose king path is not attacked.
+     */
+    public Collection<Move> calculateKingCastles() {
+        final int castlingRights = this.board.getCastlingRights() & CastlingRights.of(getAlliance());
+        if (castlingRights == CastlingRights.NONE || this.isInCheck) {
+            return ImmutableList.of();
+        }
+        final List<Move> kingCastles = new ArrayList<>(2);
+        for (int castle = 0; castle < CastlingRights.CASTLES; castle++) {
+            if ((castlingRights & (1 << castle)) == 0 ||
+                    (this.board.getOccupiedTiles() & CastlingRights.EMPTY_PATHS[castle]) != 0 ||
+                    isAnyTileAttacked(CastlingRights.SAFE_PATHS[castle])) {
+                continue;
+            }
+            final Rook castleRook = (Rook) this.board.getTile(CastlingRights.ROOK_STARTS[castle]).getPiece();
+            kingCastles.add(CastlingRights.isKingSide(castle) ?
+                    new Move.KingSideCastleMove(this.board, this.playerKing, CastlingRights.KING_DESTINATIONS[castle],
+                            castleRook, CastlingRights.ROOK_STARTS[castle], CastlingRights.ROOK_DESTINATIONS[castle]) :
+                    new Move.QueenSideCastleMove(this.board, this.playerKing, CastlingRights.KING_DESTINATIONS[castle],
+                            castleRook, CastlingRights.ROOK_STARTS[castle], CastlingRights.ROOK_DESTINATIONS[castle]));
+        }
+        return kingCastles;
+    }
+
+    private boolean isAnyTileAttacked(final long tiles) {
+        long remaining = tiles;
+        while (remaining != 0) {
+            if (this.board.isSquareAttacked(Long.numberOfTrailingZeros(remaining), getAlliance().getOpponent())) {
+                return true;
+            }
+            remaining &= remaining - 1;
+        }
+        return false;
+    }
 }
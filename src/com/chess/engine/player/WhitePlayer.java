@@ -3,21 +3,15 @@ package com.chess.engine.player;
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
-import com.chess.engine.pieces.Rook;
-import com.google.common.collect.ImmutableList;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public class WhitePlayer extends Player {
     public WhitePlayer(final Board board,
-                       final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
+                       final Collection<Move> whiteStandardLegalMoves) {
 
-        super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+        super(board, whiteStandardLegalMoves);
     }
 
     @Override
@@ -34,42 +28,4 @@ public class WhitePlayer extends Player {
     public Player getOpponent() {
         return this.board.blackPlayer();
     }
-
-    @Override
-    public Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentLegals) {
-        final List<Move> kingCastles = new ArrayList<>();
-        if (this.playerKing.isFirstMove() && this.isInCheck()) {
-            // calculate white king side castle moves
-            if (this.board.getTile(61).isTileOccupied() && this.board.getTile(62).isTileOccupied()) {
-                final Tile rookTile = this.board.getTile(63);
-                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if (Player.calculateAttacksOnTile(61, opponentLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(62, opponentLegals).isEmpty() &&
-                            rookTile.getPiece().getPieceType().isRook()) {
-                        kingCastles.add(new Move.KingSideCastleMove(this.board,
-                                this.playerKing,
-                                62,
-                                (Rook) rookTile.getPiece(),
-                                rookTile.getTileCoordinate(),
-                                61));
-                    }
-                }
-            }
-            // calculate white queen side castle moves
-            if (this.board.getTile(57).isTileOccupied() &&
-                    this.board.getTile(58).isTileOccupied() &&
-                    this.board.getTile(59).isTileOccupied()) {
-                final Tile rookTile = this.board.getTile(56);
-                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    kingCastles.add(new Move.QueenSideCastleMove(this.board,
-                            this.playerKing,
-                            58,
-                            (Rook) rookTile.getPiece(),
-                            rookTile.getTileCoordinate(),
-                            59));
-                }
-            }
-        }
-        return ImmutableList.copyOf(kingCastles);
-    }
 }
@@ -0,0 +1,473 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.board.PositionHistory;
+import com.chess.engine.metrics.EngineMetrics;
+import com.chess.engine.metrics.SearchIterationEvent;
+import com.chess.engine.player.MoveIterator;
+import com.chess.engine.player.MoveTransition;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Class choosing a move by iterative deepening negamax alpha-beta search
+ * with a transposition table, staged move ordering (hash move, captures,
+ * killers, quiet moves) and a capture-only quiescence search. Repetitions
+ * and fifty-move positions score as draws.
+ * An instance keeps per-search state and is not safe for concurrent use;
+ * the transposition table may be shared.
+ *
+ * In MultiPV mode the root reports the best few moves with exact scores
+ * instead of only the best one; see searchRoot.
+ */
+public class AlphaBeta implements MoveStrategy {
+
+    public static final int MATE_SCORE = 100000;
+    public static final int INFINITE_SCORE = MATE_SCORE + 1;
+
+    private static final int MAX_PLY = 128;
+
+    private static final ThreadLocal<SearchStack> SEARCH_STACKS =
+            ThreadLocal.withInitial(() -> new SearchStack(MAX_PLY));
+
+    private final BoardEvaluator evaluator;
+    private final int searchDepth;
+    private final TranspositionTable transpositionTable;
+    private final EvaluationStack evaluationStack;
+
+    private long nodeLimit = Long.MAX_VALUE;
+    private long timeLimitNanos = Long.MAX_VALUE;
+    private SearchListener searchListener;
+    private int multiPv = 1;
+
+    private PositionHistory history;
+    private SearchStack searchStack;
+    private long deadline;
+    private long nodesSearched;
+    private int completedDepth;
+    private int bestScore;
+    private Move bestMove;
+    private Move iterationBestMove;
+    private List<PrincipalVariation> principalVariations = ImmutableList.of();
+    private List<PrincipalVariation> iterationLines;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+
+    public AlphaBeta(final int searchDepth) {
+        this(searchDepth, StandardBoardEvaluator.get(), new TranspositionTable(16));
+    }
+
+    public AlphaBeta(final int searchDepth,
+                     final BoardEvaluator evaluator,
+                     final TranspositionTable transpositionTable) {
+        this.searchDepth = Math.min(searchDepth, MAX_PLY - 1);
+        this.evaluator = evaluator;
+        this.transpositionTable = transpositionTable;
+        this.evaluationStack = evaluator instanceof IncrementalEvaluator ?
+                ((IncrementalEvaluator) evaluator).newEvaluationStack() : null;
+    }
+
+    public AlphaBeta setNodeLimit(final long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+        return this;
+    }
+
+    public AlphaBeta setTimeLimitMillis(final long timeLimitMillis) {
+        this.timeLimitNanos = timeLimitMillis * 1_000_000L;
+        return this;
+    }
+
+    /*
+     * Asks a running search to return as soon as possible, from any thread.
+     * The position history is restored before execute returns; without a
+     * completed iteration the null move is returned.
+     */
+    public void stop() {
+        this.stopRequested = true;
+    }
+
+    public AlphaBeta setSearchListener(final SearchListener searchListener) {
+        this.searchListener = searchListener;
+        return this;
+    }
+
+    /*
+     * Number of ranked lines to search for; 1 searches for the best move only.
+     */
+    public AlphaBeta setMultiPv(final int multiPv) {
+        if (multiPv < 1) {
+            throw new RuntimeException("MultiPV must be at least 1");
+        }
+        this.multiPv = multiPv;
+        return this;
+    }
+
+    /*
+     * Lines of the last completed iteration, best first.
+     */
+    public List<PrincipalVariation> getPrincipalVariations() {
+        return this.principalVariations;
+    }
+
+    public long getNodesSearched() {
+        return this.nodesSearched;
+    }
+
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    /*
+     * Score of the last completed iteration, from the side to move's point of view.
+     */
+    public int getBestScore() {
+        return this.bestScore;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        return execute(board, new PositionHistory(board));
+    }
+
+    /*
+     * Searches the last position of the given game history, so that
+     * repetitions of earlier game positions are recognised. The history is
+     * restored before returning.
+     */
+    public Move execute(final Board board, final PositionHistory gameHistory) {
+        this.history = gameHistory;
+        this.searchStack = SEARCH_STACKS.get();
+        this.searchStack.clear();
+        this.nodesSearched = 0;
+        this.completedDepth = 0;
+        this.bestScore = 0;
+        this.bestMove = MoveFactory.getNullMove();
+        this.principalVariations = ImmutableList.of();
+        this.stopped = false;
+        if (this.evaluationStack != null) {
+            this.evaluationStack.reset(board);
+        }
+        final long start = System.nanoTime();
+        this.deadline = this.timeLimitNanos == Long.MAX_VALUE ? Long.MAX_VALUE : start + this.timeLimitNanos;
+        for (int depth = 1; depth <= this.searchDepth; depth++) {
+            final SearchIterationEvent event = EngineMetrics.ENABLED ? new SearchIterationEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+            this.iterationBestMove = MoveFactory.getNullMove();
+            final int score = this.multiPv > 1 ?
+                    searchRoot(board, depth) : negamax(board, depth, -INFINITE_SCORE, INFINITE_SCORE, 0);
+            if (this.stopped) {
+                break;
+            }
+            this.bestScore = score;
+            this.bestMove = this.iterationBestMove;
+            this.completedDepth = depth;
+            if (this.multiPv > 1) {
+                this.principalVariations = ImmutableList.copyOf(this.iterationLines);
+            } else if (this.bestMove != MoveFactory.getNullMove()) {
+                this.principalVariations = ImmutableList.of(
+                        principalVariation(board, this.searchStack.frame(0).getPv(), score, depth));
+            }
+            if (event != null && event.shouldCommit()) {
+                event.depth = depth;
+                event.score = score;
+                event.nodes = this.nodesSearched;
+                event.bestMove = this.bestMove == MoveFactory.getNullMove() ?
+                        null : MoveUtils.toCoordinateNotation(this.bestMove);
+                event.commit();
+            }
+            if (this.searchListener != null) {
+                final long elapsed = System.nanoTime() - start;
+                this.searchListener.onIterationComplete(depth, score, this.bestMove, this.nodesSearched, elapsed);
+                this.searchListener.onPrincipalVariations(depth, this.principalVariations, this.nodesSearched, elapsed);
+            }
+            if (Math.abs(score) >= MATE_SCORE - MAX_PLY) {
+                break;
+            }
+        }
+        this.history = null;
+        this.searchStack.clear();
+        this.searchStack = null;
+        EngineMetrics.recordSearch(this.nodesSearched, System.nanoTime() - start);
+        return this.bestMove;
+    }
+
+    /*
+     * MultiPV root search. Each root move gets its own window: alpha is the
+     * score of the multiPv-th best line found so far, so a move that cannot
+     * enter the top lines is refuted as cheaply as in a single-PV search,
+     * and only the moves that do get exact scores. Previous lines are
+     * searched first so the window tightens early; deeper lines are read
+     * back from the shared transposition table.
+     */
+    private int searchRoot(final Board board, final int depth) {
+        this.nodesSearched++;
+        final List<PrincipalVariation> lines = new ArrayList<>(this.multiPv + 1);
+        for (final Move move : orderRootMoves(board)) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (!transition.getMoveStatus().isDone()) {
+                continue;
+            }
+            final int alpha = lines.size() < this.multiPv ? -INFINITE_SCORE : lines.get(this.multiPv - 1).getScore();
+            this.history.push(move, transition.getTransitionBoard());
+            pushEvaluation(move, transition.getTransitionBoard());
+            final int score = -negamax(transition.getTransitionBoard(), depth - 1, -INFINITE_SCORE, -alpha, 1);
+            popEvaluation();
+            this.history.pop();
+            if (this.stopped) {
+                return 0;
+            }
+            if (score > alpha) {
+                int index = lines.size();
+                while (index > 0 && lines.get(index - 1).getScore() < score) {
+                    index--;
+                }
+                final List<Move> line = new ArrayList<>();
+                line.add(move);
+                line.addAll(this.searchStack.frame(1).getPv());
+                lines.add(index, new PrincipalVariation(line, score, depth));
+                if (lines.size() > this.multiPv) {
+                    lines.remove(this.multiPv);
+                }
+            }
+        }
+        if (lines.isEmpty()) {
+            this.iterationLines = ImmutableList.of();
+            return board.currentPlayer().isInCheck() ? -MATE_SCORE : 0;
+        }
+        final PrincipalVariation best = lines.get(0);
+        this.transpositionTable.store(board.getZobristHash(), depth, scoreToTable(best.getScore(), 0),
+                TranspositionTable.EXACT, MoveUtils.encode(best.getFirstMove()));
+        this.iterationBestMove = best.getFirstMove();
+        this.iterationLines = new ArrayList<>(lines.size());
+        for (final PrincipalVariation line : lines) {
+            this.iterationLines.add(principalVariation(board, line.getMoves(), line.getScore(), depth));
+        }
+        return best.getScore();
+    }
+
+    private List<Move> orderRootMoves(final Board board) {
+        final List<Move> ordered = new ArrayList<>();
+        board.currentPlayer().moveIterator(MoveUtils.NULL_MOVE_CODE, MoveUtils.NULL_MOVE_CODE,
+                MoveUtils.NULL_MOVE_CODE).forEachRemaining(ordered::add);
+        for (int i = this.principalVariations.size() - 1; i >= 0; i--) {
+            final Move previous = this.principalVariations.get(i).getFirstMove();
+            if (ordered.remove(previous)) {
+                ordered.add(0, previous);
+            }
+        }
+        return ordered;
+    }
+
+    /*
+     * Plays the line found by the search, then follows hash moves while it
+     * is shorter than the depth, stopping at a missing or stale entry or a
+     * repeated position.
+     */
+    private PrincipalVariation principalVariation(final Board board, final List<Move> line,
+                                                  final int score, final int depth) {
+        final List<Move> moves = new ArrayList<>();
+        final Set<Long> visited = new HashSet<>();
+        Board current = board;
+        for (final Move move : line) {
+            final MoveTransition transition = current.currentPlayer().makeMove(move);
+            if (!transition.getMoveStatus().isDone()) {
+                break;
+            }
+            moves.add(move);
+            visited.add(current.getZobristHash());
+            current = transition.getTransitionBoard();
+        }
+        while (moves.size() < depth && visited.add(current.getZobristHash())) {
+            final long entry = this.transpositionTable.probe(current.getZobristHash());
+            if (entry == TranspositionTable.MISS) {
+                break;
+            }
+            final Move move = MoveUtils.decode(current, TranspositionTable.moveCode(entry));
+            if (move == MoveFactory.getNullMove()) {
+                break;
+            }
+            final MoveTransition transition = current.currentPlayer().makeMove(move);
+            if (!transition.getMoveStatus().isDone()) {
+                break;
+            }
+            moves.add(move);
+            current = transition.getTransitionBoard();
+        }
+        return new PrincipalVariation(moves, score, depth);
+    }
+
+    private int negamax(final Board board, final int depth, int alpha, final int beta, final int ply) {
+        final SearchStack.Frame frame = this.searchStack.frame(ply);
+        frame.clear();
+        if (shouldStop()) {
+            return 0;
+        }
+        this.nodesSearched++;
+        if (ply > 0 && (this.history.isRepetition() || this.history.isFiftyMoveRule())) {
+            return 0;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiesce(board, alpha, beta, ply);
+        }
+        final long key = board.getZobristHash();
+        final long entry = this.transpositionTable.probe(key);
+        EngineMetrics.recordTranspositionProbe(entry != TranspositionTable.MISS);
+        int hashMoveCode = MoveUtils.NULL_MOVE_CODE;
+        if (entry != TranspositionTable.MISS) {
+            hashMoveCode = TranspositionTable.moveCode(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                final int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                final int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                        (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+        final int originalAlpha = alpha;
+        int bestScore = -INFINITE_SCORE;
+        int bestMoveCode = MoveUtils.NULL_MOVE_CODE;
+        int legalMoves = 0;
+        final MoveIterator moves = frame.getMoves().reset(board.currentPlayer(), hashMoveCode,
+                frame.getFirstKiller(), frame.getSecondKiller(), false);
+        while (moves.hasNext()) {
+            final Move move = moves.next();
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (!transition.getMoveStatus().isDone()) {
+                continue;
+            }
+            legalMoves++;
+            this.history.push(move, transition.getTransitionBoard());
+            pushEvaluation(move, transition.getTransitionBoard());
+            final int score = -negamax(transition.getTransitionBoard(), depth - 1, -beta, -alpha, ply + 1);
+            popEvaluation();
+            this.history.pop();
+            if (this.stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMoveCode = MoveUtils.encode(move);
+                if (ply == 0) {
+                    this.iterationBestMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    frame.updatePv(move, this.searchStack.frame(ply + 1));
+                    if (alpha >= beta) {
+                        if (!move.isAttack()) {
+                            frame.addKiller(bestMoveCode);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (legalMoves == 0) {
+            return board.currentPlayer().isInCheck() ? -MATE_SCORE + ply : 0;
+        }
+        final int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND :
+                bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        this.transpositionTable.store(key, depth, scoreToTable(bestScore, ply), bound, bestMoveCode);
+        return bestScore;
+    }
+
+    private int quiesce(final Board board, int alpha, final int beta, final int ply) {
+        final SearchStack.Frame frame = this.searchStack.frame(ply);
+        frame.clear();
+        this.nodesSearched++;
+        final int standPat = evaluate(board);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+        final MoveIterator moves = frame.getMoves().reset(board.currentPlayer(), MoveUtils.NULL_MOVE_CODE,
+                MoveUtils.NULL_MOVE_CODE, MoveUtils.NULL_MOVE_CODE, true);
+        while (moves.hasNext()) {
+            final Move move = moves.next();
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (!transition.getMoveStatus().isDone()) {
+                continue;
+            }
+            pushEvaluation(move, transition.getTransitionBoard());
+            final int score = -quiesce(transition.getTransitionBoard(), -beta, -alpha, ply + 1);
+            popEvaluation();
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private int evaluate(final Board board) {
+        EngineMetrics.recordEvaluation();
+        final int score = this.evaluationStack != null ?
+                this.evaluationStack.evaluate(board) : this.evaluator.evaluate(board, 0);
+        return board.currentPlayer().getAlliance().isWhite() ? score : -score;
+    }
+
+    private void pushEvaluation(final Move move, final Board transitionBoard) {
+        if (this.evaluationStack != null) {
+            this.evaluationStack.push(move, transitionBoard);
+        }
+    }
+
+    private void popEvaluation() {
+        if (this.evaluationStack != null) {
+            this.evaluationStack.pop();
+        }
+    }
+
+    private boolean shouldStop() {
+        if (!this.stopped && this.stopRequested) {
+            this.stopped = true;
+        } else if (!this.stopped && (this.nodesSearched >= this.nodeLimit ||
+                ((this.nodesSearched & 1023) == 0 && System.nanoTime() >= this.deadline))) {
+            this.stopped = this.completedDepth > 0;
+        }
+        return this.stopped;
+    }
+
+    /*
+     * Mate scores are stored relative to the node so they stay correct when
+     * the same position is reached at a different ply.
+     */
+    private static int scoreToTable(final int score, final int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE_SCORE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(final int score, final int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE_SCORE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,178 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PositionHistory;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Class analysing batches of positions on a fork-join pool. The batch is
+ * split in halves down to single positions so idle workers steal whatever
+ * is left; results come back in input order. All workers share one
+ * transposition table and the static move and hash tables, and each worker
+ * thread reuses its own position history between positions.
+ */
+public final class BatchAnalyzer implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable transpositionTable;
+    private final BoardEvaluator evaluator;
+    private final ThreadLocal<PositionHistory> workerHistory = ThreadLocal.withInitial(PositionHistory::new);
+
+    private BatchAnalyzer(final Builder builder) {
+        this.pool = new ForkJoinPool(builder.parallelism);
+        this.transpositionTable = new TranspositionTable(builder.transpositionTableSize);
+        this.evaluator = builder.evaluator;
+    }
+
+    public List<Result> analyze(final List<Board> boards, final int depth) {
+        final List<Request> requests = new ArrayList<>(boards.size());
+        for (final Board board : boards) {
+            requests.add(new Request(board, depth));
+        }
+        return analyze(requests);
+    }
+
+    public List<Result> analyze(final List<Request> requests) {
+        final Result[] results = new Result[requests.size()];
+        this.pool.invoke(new AnalysisTask(requests, results, 0, requests.size()));
+        return ImmutableList.copyOf(results);
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    @Override
+    public void close() {
+        this.pool.shutdown();
+    }
+
+    private Result analyze(final Request request) {
+        final PositionHistory history = this.workerHistory.get();
+        history.reset(request.board, 0);
+        final AlphaBeta search = new AlphaBeta(request.depth, this.evaluator, this.transpositionTable)
+                .setNodeLimit(request.nodeLimit);
+        final Move bestMove = search.execute(request.board, history);
+        return new Result(request.board, bestMove, search.getBestScore(), search.getCompletedDepth(), search.getNodesSearched());
+    }
+
+    private final class AnalysisTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Request> requests;
+        private final Result[] results;
+        private final int from;
+        private final int to;
+
+        AnalysisTask(final List<Request> requests, final Result[] results, final int from, final int to) {
+            this.requests = requests;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                this.results[this.from] = analyze(this.requests.get(this.from));
+            } else if (this.to > this.from) {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new AnalysisTask(this.requests, this.results, this.from, middle),
+                        new AnalysisTask(this.requests, this.results, middle, this.to));
+            }
+        }
+    }
+
+    /*
+     * A position to analyse with its depth and optional node budget.
+     */
+    public static final class Request {
+
+        private final Board board;
+        private final int depth;
+        private final long nodeLimit;
+
+        public Request(final Board board, final int depth) {
+            this(board, depth, Long.MAX_VALUE);
+        }
+
+        public Request(final Board board, final int depth, final long nodeLimit) {
+            this.board = board;
+            this.depth = depth;
+            this.nodeLimit = nodeLimit;
+        }
+    }
+
+    public static final class Result {
+
+        private final Board board;
+        private final Move bestMove;
+        private final int score;
+        private final int depth;
+        private final long nodes;
+
+        private Result(final Board board, final Move bestMove, final int score, final int depth, final long nodes) {
+            this.board = board;
+            this.bestMove = bestMove;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+        }
+
+        public Board getBoard() {
+            return this.board;
+        }
+
+        public Move getBestMove() {
+            return this.bestMove;
+        }
+
+        /*
+         * Score from the side to move's point of view.
+         */
+        public int getScore() {
+            return this.score;
+        }
+
+        public int getDepth() {
+            return this.depth;
+        }
+
+        public long getNodes() {
+            return this.nodes;
+        }
+    }
+
+    public static class Builder {
+
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int transpositionTableSize = 64;
+        private BoardEvaluator evaluator = StandardBoardEvaluator.get();
+
+        public Builder setParallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder setTranspositionTableSize(final int sizeInMegabytes) {
+            this.transpositionTableSize = sizeInMegabytes;
+            return this;
+        }
+
+        public Builder setEvaluator(final BoardEvaluator evaluator) {
+            this.evaluator = evaluator;
+            return this;
+        }
+
+        public BatchAnalyzer build() {
+            return new BatchAnalyzer(this);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+
+/*
+ * Interface scoring a board from white's point of view: positive scores
+ * favour white, negative scores favour black.
+ */
+public interface BoardEvaluator {
+
+    int evaluate(Board board, int depth);
+}
@@ -0,0 +1,24 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+/*
+ * Interface of the per-search state of an incremental evaluator. The
+ * search resets it at the root, pushes every move it plays and pops it
+ * again on the way back, so the top of the stack always matches the board
+ * being searched. Not safe for concurrent use.
+ */
+public interface EvaluationStack {
+
+    void reset(Board root);
+
+    void push(Move move, Board transitionBoard);
+
+    void pop();
+
+    /*
+     * Scores the board on top of the stack from white's point of view.
+     */
+    int evaluate(Board board);
+}
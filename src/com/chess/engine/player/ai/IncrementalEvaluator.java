@@ -0,0 +1,12 @@
+package com.chess.engine.player.ai;
+
+/*
+ * Interface of evaluators that can update their state move by move along
+ * a search line instead of scoring every board from scratch. The
+ * evaluator itself stays shareable between threads; each search takes
+ * its own stack.
+ */
+public interface IncrementalEvaluator extends BoardEvaluator {
+
+    EvaluationStack newEvaluationStack();
+}
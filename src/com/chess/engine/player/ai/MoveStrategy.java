@@ -0,0 +1,12 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+/*
+ * Interface implemented by every way of choosing a move for the side to move.
+ */
+public interface MoveStrategy {
+
+    Move execute(Board board);
+}
@@ -0,0 +1,158 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
+/*
+ * Class scoring boards with an NnueNetwork. Scoring a lone board rebuilds
+ * both accumulators from every piece; a search instead keeps a stack of
+ * accumulators, one per ply, and derives each child's accumulators from
+ * its parent's by subtracting and adding the weight columns of the two to
+ * four features a move changes. Returning from a child is just a pop.
+ */
+public final class NnueEvaluator implements IncrementalEvaluator {
+
+    private static final int INITIAL_STACK_DEPTH = 128;
+
+    private final NnueNetwork network;
+
+    public NnueEvaluator(final NnueNetwork network) {
+        this.network = network;
+    }
+
+    public NnueNetwork getNetwork() {
+        return this.network;
+    }
+
+    @Override
+    public int evaluate(final Board board, final int depth) {
+        final short[] white = new short[this.network.getHiddenSize()];
+        final short[] black = new short[this.network.getHiddenSize()];
+        refresh(board, white, black);
+        return score(board, white, black);
+    }
+
+    @Override
+    public EvaluationStack newEvaluationStack() {
+        return new AccumulatorStack();
+    }
+
+    private int score(final Board board, final short[] white, final short[] black) {
+        if (board.currentPlayer().getAlliance().isWhite()) {
+            return this.network.forward(white, black);
+        }
+        return -this.network.forward(black, white);
+    }
+
+    private void refresh(final Board board, final short[] white, final short[] black) {
+        System.arraycopy(this.network.featureBiases, 0, white, 0, white.length);
+        System.arraycopy(this.network.featureBiases, 0, black, 0, black.length);
+        for (final Piece piece : board.getWhitePieces()) {
+            addPiece(white, black, piece.getPieceType(), piece.getPieceAlliance(), piece.getPiecePosition());
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            addPiece(white, black, piece.getPieceType(), piece.getPieceAlliance(), piece.getPiecePosition());
+        }
+    }
+
+    private void addPiece(final short[] white, final short[] black, final Piece.PieceType pieceType,
+                          final Alliance alliance, final int coordinate) {
+        addColumn(white, NnueNetwork.featureIndex(Alliance.WHITE, pieceType, alliance, coordinate));
+        addColumn(black, NnueNetwork.featureIndex(Alliance.BLACK, pieceType, alliance, coordinate));
+    }
+
+    private void removePiece(final short[] white, final short[] black, final Piece.PieceType pieceType,
+                             final Alliance alliance, final int coordinate) {
+        subtractColumn(white, NnueNetwork.featureIndex(Alliance.WHITE, pieceType, alliance, coordinate));
+        subtractColumn(black, NnueNetwork.featureIndex(Alliance.BLACK, pieceType, alliance, coordinate));
+    }
+
+    private void addColumn(final short[] accumulator, final int feature) {
+        final short[] weights = this.network.featureWeights;
+        final int offset = feature * accumulator.length;
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    private void subtractColumn(final short[] accumulator, final int feature) {
+        final short[] weights = this.network.featureWeights;
+        final int offset = feature * accumulator.length;
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    private final class AccumulatorStack implements EvaluationStack {
+
+        private short[][] white;
+        private short[][] black;
+        private int ply;
+
+        AccumulatorStack() {
+            final int hiddenSize = NnueEvaluator.this.network.getHiddenSize();
+            this.white = new short[INITIAL_STACK_DEPTH][hiddenSize];
+            this.black = new short[INITIAL_STACK_DEPTH][hiddenSize];
+        }
+
+        @Override
+        public void reset(final Board root) {
+            this.ply = 0;
+            refresh(root, this.white[0], this.black[0]);
+        }
+
+        @Override
+        public void push(final Move move, final Board transitionBoard) {
+            if (this.ply + 1 == this.white.length) {
+                grow();
+            }
+            final short[] white = this.white[this.ply + 1];
+            final short[] black = this.black[this.ply + 1];
+            System.arraycopy(this.white[this.ply], 0, white, 0, white.length);
+            System.arraycopy(this.black[this.ply], 0, black, 0, black.length);
+            this.ply++;
+
+            final Piece movedPiece = move.getMovedPiece();
+            final Alliance alliance = movedPiece.getPieceAlliance();
+            removePiece(white, black, movedPiece.getPieceType(), alliance, move.getCurrentDestination());
+            if (move.isAttack()) {
+                final Piece attackedPiece = move.getAttackedPiece();
+                removePiece(white, black, attackedPiece.getPieceType(), attackedPiece.getPieceAlliance(),
+                        attackedPiece.getPiecePosition());
+            }
+            final Piece.PieceType arrivingType = move instanceof Move.PawnPromotion ?
+                    ((Move.PawnPromotion) move).getPromotionPiece().getPieceType() : movedPiece.getPieceType();
+            addPiece(white, black, arrivingType, alliance, move.getDestinationCoordinate());
+            if (move.isCastlingMove()) {
+                final Move.CastleMove castleMove = (Move.CastleMove) move;
+                removePiece(white, black, Piece.PieceType.ROOK, alliance, castleMove.getCastleRookStart());
+                addPiece(white, black, Piece.PieceType.ROOK, alliance, castleMove.getCastleRookDestination());
+            }
+        }
+
+        @Override
+        public void pop() {
+            this.ply--;
+        }
+
+        @Override
+        public int evaluate(final Board board) {
+            return score(board, this.white[this.ply], this.black[this.ply]);
+        }
+
+        private void grow() {
+            final int depth = this.white.length;
+            final int hiddenSize = NnueEvaluator.this.network.getHiddenSize();
+            this.white = Arrays.copyOf(this.white, 2 * depth);
+            this.black = Arrays.copyOf(this.black, 2 * depth);
+            for (int i = depth; i < 2 * depth; i++) {
+                this.white[i] = new short[hiddenSize];
+                this.black[i] = new short[hiddenSize];
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * Class holding the quantized weights of an efficiently updatable neural
+ * network: a 768 -> N feature transformer shared by both perspectives,
+ * followed by a single output neuron over the clipped accumulators of the
+ * side to move and of the other side (2N -> 1).
+ *
+ * Features are (own or their piece, piece type, square) seen from one
+ * perspective: black sees the board flipped vertically, so both sides see
+ * their pieces moving "up". Piece types are ordered pawn, knight, bishop,
+ * rook, queen, king; squares count from a1 = 0 to h8 = 63.
+ *
+ * File layout, little-endian:
+ *   int    magic 0x4A434E4E ("JCNN")
+ *   int    version 1
+ *   int    hidden size N
+ *   short  feature weights [768][N]
+ *   short  feature biases [N]
+ *   byte   output weights [2N]
+ *   int    output bias
+ *
+ * Accumulators are clipped to [0, ACTIVATION_SCALE]; the output is divided
+ * by ACTIVATION_SCALE * WEIGHT_SCALE and multiplied by OUTPUT_SCALE to
+ * give centipawns.
+ */
+public final class NnueNetwork {
+
+    public static final int FEATURES = 768;
+    public static final int ACTIVATION_SCALE = 255;
+    public static final int WEIGHT_SCALE = 64;
+    public static final int OUTPUT_SCALE = 400;
+
+    private static final int MAGIC = 0x4A434E4E;
+    private static final int VERSION = 1;
+
+    private final int hiddenSize;
+    final short[] featureWeights;
+    final short[] featureBiases;
+    final byte[] outputWeights;
+    final int outputBias;
+
+    private NnueNetwork(final int hiddenSize,
+                        final short[] featureWeights,
+                        final short[] featureBiases,
+                        final byte[] outputWeights,
+                        final int outputBias) {
+        this.hiddenSize = hiddenSize;
+        this.featureWeights = featureWeights;
+        this.featureBiases = featureBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    public static NnueNetwork load(final Path path) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+            throw new IOException(path + " is not a network file");
+        }
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported network version " + version);
+        }
+        final int hiddenSize = buffer.getInt();
+        final long expected = 2L * FEATURES * hiddenSize + 2L * hiddenSize + 2L * hiddenSize + 4;
+        if (hiddenSize <= 0 || buffer.remaining() != expected) {
+            throw new IOException("Network file " + path + " has the wrong size for " + hiddenSize + " neurons");
+        }
+        final short[] featureWeights = new short[FEATURES * hiddenSize];
+        buffer.asShortBuffer().get(featureWeights);
+        buffer.position(buffer.position() + 2 * featureWeights.length);
+        final short[] featureBiases = new short[hiddenSize];
+        buffer.asShortBuffer().get(featureBiases);
+        buffer.position(buffer.position() + 2 * featureBiases.length);
+        final byte[] outputWeights = new byte[2 * hiddenSize];
+        buffer.get(outputWeights);
+        final int outputBias = buffer.getInt();
+        return new NnueNetwork(hiddenSize, featureWeights, featureBiases, outputWeights, outputBias);
+    }
+
+    public int getHiddenSize() {
+        return this.hiddenSize;
+    }
+
+    /*
+     * Index of the feature for a piece on a square (0 = a8 board layout) as
+     * seen from the given perspective.
+     */
+    static int featureIndex(final Alliance perspective, final Piece.PieceType pieceType,
+                            final Alliance pieceAlliance, final int tileCoordinate) {
+        final int square = perspective.isWhite() ? tileCoordinate ^ 56 : tileCoordinate;
+        final int side = pieceAlliance == perspective ? 0 : 1;
+        return (side * 6 + pieceTypeIndex(pieceType)) * 64 + square;
+    }
+
+    private static int pieceTypeIndex(final Piece.PieceType pieceType) {
+        switch (pieceType) {
+            case PAWN:
+                return 0;
+            case KNIGHT:
+                return 1;
+            case BISHOP:
+                return 2;
+            case ROOK:
+                return 3;
+            case QUEEN:
+                return 4;
+            case KING:
+                return 5;
+            default:
+                throw new RuntimeException("Unknown piece type " + pieceType);
+        }
+    }
+
+    /*
+     * Output layer over the two accumulators. The loops are plain int
+     * arithmetic over contiguous arrays, which the JIT compiles to SIMD.
+     */
+    int forward(final short[] us, final short[] them) {
+        final int hidden = this.hiddenSize;
+        final byte[] weights = this.outputWeights;
+        int sum = 0;
+        for (int i = 0; i < hidden; i++) {
+            sum += clip(us[i]) * weights[i];
+        }
+        for (int i = 0; i < hidden; i++) {
+            sum += clip(them[i]) * weights[hidden + i];
+        }
+        return (int) ((long) (sum + this.outputBias) * OUTPUT_SCALE / (ACTIVATION_SCALE * WEIGHT_SCALE));
+    }
+
+    private static int clip(final short value) {
+        return Math.min(Math.max(value, 0), ACTIVATION_SCALE);
+    }
+}
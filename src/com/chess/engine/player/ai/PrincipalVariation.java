@@ -0,0 +1,51 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveUtils;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/*
+ * Class holding one line reported by a search: the moves expected from
+ * the root and the score of the first of them, from the side to move's
+ * point of view, at the iteration depth it was found.
+ */
+public final class PrincipalVariation {
+
+    private final ImmutableList<Move> moves;
+    private final int score;
+    private final int depth;
+
+    PrincipalVariation(final List<Move> moves, final int score, final int depth) {
+        this.moves = ImmutableList.copyOf(moves);
+        this.score = score;
+        this.depth = depth;
+    }
+
+    public List<Move> getMoves() {
+        return this.moves;
+    }
+
+    public Move getFirstMove() {
+        return this.moves.get(0);
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("depth ").append(this.depth).append(" score ").append(this.score).append(" pv");
+        for (final Move move : this.moves) {
+            builder.append(' ').append(MoveUtils.toCoordinateNotation(move));
+        }
+        return builder.toString();
+    }
+}
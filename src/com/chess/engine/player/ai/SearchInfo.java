@@ -0,0 +1,76 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/*
+ * Class holding the progress of a search after one completed iteration:
+ * depth, score and best move of the side to move, nodes, elapsed time and
+ * the ranked principal variations, best first.
+ */
+public final class SearchInfo {
+
+    private final int depth;
+    private final int score;
+    private final Move bestMove;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final ImmutableList<PrincipalVariation> lines;
+
+    SearchInfo(final int depth,
+               final int score,
+               final Move bestMove,
+               final long nodes,
+               final long elapsedNanos,
+               final List<PrincipalVariation> lines) {
+        this.depth = depth;
+        this.score = score;
+        this.bestMove = bestMove;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.lines = ImmutableList.copyOf(lines);
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    public long getNodesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.nodes * 1_000_000_000L / this.elapsedNanos;
+    }
+
+    public List<PrincipalVariation> getLines() {
+        return this.lines;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("depth ").append(this.depth)
+                .append(" score ").append(this.score)
+                .append(" nodes ").append(this.nodes)
+                .append(" nps ").append(getNodesPerSecond());
+        for (final PrincipalVariation line : this.lines) {
+            builder.append('\n').append(line);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,305 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Class publishing search progress to Flow subscribers. Install it as the
+ * search listener: after each iteration the searching thread only appends
+ * a SearchInfo to every subscriber's bounded buffer and never waits for a
+ * subscriber. Delivery runs on the executor, one drain per subscriber at a
+ * time, and honours each subscriber's demand.
+ *
+ * A full buffer drops its oldest entry, so a buffer of one gives latest
+ * value semantics. With a throttle interval a subscriber receives at most
+ * one item per interval, the newest; older pending items are coalesced
+ * away. Dropped and coalesced items are counted.
+ */
+public final class SearchInfoPublisher implements Flow.Publisher<SearchInfo>, SearchListener, AutoCloseable {
+
+    private final Executor executor;
+    private final int bufferCapacity;
+    private final long throttleNanos;
+    private final List<SearchSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean closed;
+
+    // last iteration, written and read on the searching thread only
+    private int iterationScore;
+    private Move iterationBestMove;
+
+    private SearchInfoPublisher(final Builder builder) {
+        this.executor = builder.executor;
+        this.bufferCapacity = builder.bufferCapacity;
+        this.throttleNanos = builder.throttleNanos;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super SearchInfo> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        final SearchSubscription subscription = new SearchSubscription(subscriber);
+        this.subscriptions.add(subscription);
+        if (this.closed) {
+            subscription.complete();
+        }
+        subscription.schedule();
+    }
+
+    @Override
+    public void onIterationComplete(final int depth,
+                                    final int score,
+                                    final Move bestMove,
+                                    final long nodes,
+                                    final long elapsedNanos) {
+        this.iterationScore = score;
+        this.iterationBestMove = bestMove;
+    }
+
+    @Override
+    public void onPrincipalVariations(final int depth,
+                                      final List<PrincipalVariation> lines,
+                                      final long nodes,
+                                      final long elapsedNanos) {
+        publish(new SearchInfo(depth, this.iterationScore, this.iterationBestMove, nodes, elapsedNanos, lines));
+    }
+
+    /*
+     * Offers the info to every subscriber without waiting for any of them.
+     */
+    public void publish(final SearchInfo info) {
+        if (this.closed) {
+            return;
+        }
+        for (final SearchSubscription subscription : this.subscriptions) {
+            subscription.offer(info);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return this.subscriptions.size();
+    }
+
+    /*
+     * Items dropped from full buffers or coalesced by throttling.
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.get();
+    }
+
+    /*
+     * Completes every subscriber once its buffer is delivered.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        for (final SearchSubscription subscription : this.subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /*
+     * One subscriber's buffer and demand. Signals to the subscriber are
+     * only sent from drain, which the work counter keeps to one thread at
+     * a time.
+     */
+    private final class SearchSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super SearchInfo> subscriber;
+        private final ArrayDeque<SearchInfo> buffer = new ArrayDeque<>();
+        private final AtomicInteger work = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean delayedDrain = new AtomicBoolean();
+        private volatile boolean completed;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        // drain state
+        private boolean subscribed;
+        private boolean terminated;
+        private boolean delivered;
+        private long lastDeliveryNanos;
+
+        private SearchSubscription(final Flow.Subscriber<? super SearchInfo> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                this.error = new IllegalArgumentException("request must be positive, was " + n);
+            } else {
+                this.requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this.buffer) {
+                this.buffer.clear();
+            }
+        }
+
+        private void offer(final SearchInfo info) {
+            synchronized (this.buffer) {
+                if (this.buffer.size() == bufferCapacity) {
+                    this.buffer.pollFirst();
+                    droppedCount.incrementAndGet();
+                }
+                this.buffer.addLast(info);
+            }
+            schedule();
+        }
+
+        private void complete() {
+            this.completed = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (this.work.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!this.subscribed) {
+                    this.subscribed = true;
+                    this.subscriber.onSubscribe(this);
+                }
+                if (!this.terminated) {
+                    deliver();
+                }
+                missed = this.work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliver() {
+            if (this.cancelled) {
+                this.terminated = true;
+                return;
+            }
+            if (this.error != null) {
+                cancel();
+                this.terminated = true;
+                this.subscriber.onError(this.error);
+                return;
+            }
+            while (this.requested.get() > 0) {
+                final long now = System.nanoTime();
+                if (throttleNanos > 0 && this.delivered && now - this.lastDeliveryNanos < throttleNanos) {
+                    if (isEmpty()) {
+                        break;
+                    }
+                    scheduleDelayed(throttleNanos - (now - this.lastDeliveryNanos));
+                    return;
+                }
+                final SearchInfo info = next();
+                if (info == null) {
+                    break;
+                }
+                this.requested.decrementAndGet();
+                this.delivered = true;
+                this.lastDeliveryNanos = now;
+                try {
+                    this.subscriber.onNext(info);
+                } catch (final Throwable t) {
+                    cancel();
+                    this.terminated = true;
+                    return;
+                }
+                if (this.cancelled) {
+                    this.terminated = true;
+                    return;
+                }
+            }
+            if (this.completed && isEmpty()) {
+                cancel();
+                this.terminated = true;
+                this.subscriber.onComplete();
+            }
+        }
+
+        /*
+         * The next item to deliver: the oldest one, or with throttling the
+         * newest, dropping the ones it supersedes.
+         */
+        private SearchInfo next() {
+            synchronized (this.buffer) {
+                if (throttleNanos > 0 && this.buffer.size() > 1) {
+                    droppedCount.addAndGet(this.buffer.size() - 1);
+                    final SearchInfo newest = this.buffer.pollLast();
+                    this.buffer.clear();
+                    return newest;
+                }
+                return this.buffer.pollFirst();
+            }
+        }
+
+        private boolean isEmpty() {
+            synchronized (this.buffer) {
+                return this.buffer.isEmpty();
+            }
+        }
+
+        private void scheduleDelayed(final long delayNanos) {
+            if (this.delayedDrain.compareAndSet(false, true)) {
+                CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor).execute(() -> {
+                    this.delayedDrain.set(false);
+                    schedule();
+                });
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private Executor executor = ForkJoinPool.commonPool();
+        private int bufferCapacity = 16;
+        private long throttleNanos;
+
+        public Builder setExecutor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /*
+         * Items kept per subscriber; 1 delivers only the latest.
+         */
+        public Builder setBufferCapacity(final int bufferCapacity) {
+            if (bufferCapacity < 1) {
+                throw new RuntimeException("Buffer capacity must be at least 1");
+            }
+            this.bufferCapacity = bufferCapacity;
+            return this;
+        }
+
+        /*
+         * Minimum time between two items to the same subscriber; 0 for none.
+         */
+        public Builder setThrottleMillis(final long throttleMillis) {
+            this.throttleNanos = TimeUnit.MILLISECONDS.toNanos(throttleMillis);
+            return this;
+        }
+
+        public SearchInfoPublisher build() {
+            return new SearchInfoPublisher(this);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+
+import java.util.List;
+
+/*
+ * Interface notified by a search after every completed iteration of
+ * iterative deepening. Called on the searching thread.
+ */
+public interface SearchListener {
+
+    void onIterationComplete(int depth, int score, Move bestMove, long nodes, long elapsedNanos);
+
+    /*
+     * The ranked lines of the completed iteration, best first; one line
+     * unless the search runs in MultiPV mode.
+     */
+    default void onPrincipalVariations(final int depth, final List<PrincipalVariation> lines,
+                                       final long nodes, final long elapsedNanos) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.player.MoveIterator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Class holding one preallocated frame per search ply, kept per thread and
+ * reused by every search run on it. A frame holds the staged move iterator
+ * of the node being searched, the killer moves of its ply and the principal
+ * variation found below it, so ordering and PV bookkeeping allocate nothing
+ * once the buffers have grown to the largest move count seen.
+ */
+final class SearchStack {
+
+    private final Frame[] frames;
+
+    SearchStack(final int maxPly) {
+        this.frames = new Frame[maxPly];
+        for (int ply = 0; ply < maxPly; ply++) {
+            this.frames[ply] = new Frame(maxPly);
+        }
+    }
+
+    Frame frame(final int ply) {
+        return this.frames[ply];
+    }
+
+    /*
+     * Forgets the killers and drops every move reference, so the boards of
+     * a finished search are not kept alive by the thread's stack.
+     */
+    void clear() {
+        for (final Frame frame : this.frames) {
+            frame.clear();
+            frame.firstKiller = MoveUtils.NULL_MOVE_CODE;
+            frame.secondKiller = MoveUtils.NULL_MOVE_CODE;
+            Arrays.fill(frame.pv, null);
+        }
+    }
+
+    static final class Frame {
+
+        private final MoveIterator moves = new MoveIterator();
+        private int firstKiller = MoveUtils.NULL_MOVE_CODE;
+        private int secondKiller = MoveUtils.NULL_MOVE_CODE;
+        private final Move[] pv;
+        private int pvLength;
+
+        private Frame(final int maxPly) {
+            this.pv = new Move[maxPly];
+        }
+
+        /*
+         * Empties the principal variation; the killers are kept for the
+         * next node at this ply.
+         */
+        void clear() {
+            this.moves.clear();
+            this.pvLength = 0;
+        }
+
+        MoveIterator getMoves() {
+            return this.moves;
+        }
+
+        int getFirstKiller() {
+            return this.firstKiller;
+        }
+
+        int getSecondKiller() {
+            return this.secondKiller;
+        }
+
+        /*
+         * Records a quiet move that caused a cutoff, keeping the last two.
+         */
+        void addKiller(final int moveCode) {
+            if (moveCode != this.firstKiller) {
+                this.secondKiller = this.firstKiller;
+                this.firstKiller = moveCode;
+            }
+        }
+
+        /*
+         * Sets the principal variation to the move followed by the child's.
+         */
+        void updatePv(final Move move, final Frame child) {
+            this.pv[0] = move;
+            System.arraycopy(child.pv, 0, this.pv, 1, child.pvLength);
+            this.pvLength = child.pvLength + 1;
+        }
+
+        List<Move> getPv() {
+            return Arrays.asList(Arrays.copyOf(this.pv, this.pvLength));
+        }
+    }
+}
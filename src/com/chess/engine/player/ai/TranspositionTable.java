@@ -0,0 +1,84 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+/*
+ * Class storing search results by position key in two flat long arrays.
+ * Each slot keeps the key xor-ed with its data, so a slot torn by two
+ * threads writing at once simply fails verification. The table can be
+ * shared between searches on different threads without locking.
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    public static final long MISS = 0L;
+
+    private static final int ENTRY_SIZE = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    public TranspositionTable(final int sizeInMegabytes) {
+        final long entries = Math.max(1024L, ((long) sizeInMegabytes << 20) / ENTRY_SIZE);
+        final int size = (int) Long.highestOneBit(Math.min(entries, 1 << 30));
+        this.keys = new long[size];
+        this.data = new long[size];
+        this.mask = size - 1;
+    }
+
+    /*
+     * Returns the packed entry stored for the key, or MISS.
+     */
+    public long probe(final long key) {
+        final int index = (int) key & this.mask;
+        final long entry = this.data[index];
+        return entry != MISS && (this.keys[index] ^ entry) == key ? entry : MISS;
+    }
+
+    public void store(final long key, final int depth, final int score, final int bound, final int moveCode) {
+        final int index = (int) key & this.mask;
+        final long entry = pack(depth, score, bound, moveCode);
+        this.data[index] = entry;
+        this.keys[index] = key ^ entry;
+    }
+
+    public void clear() {
+        Arrays.fill(this.keys, 0L);
+        Arrays.fill(this.data, 0L);
+    }
+
+    public int capacity() {
+        return this.keys.length;
+    }
+
+    /*
+     * Layout: score (32 bits) | depth + 1 (8 bits) | bound (2 bits) | move (16 bits).
+     * The depth is offset by one so that no stored entry packs to MISS.
+     */
+    private static long pack(final int depth, final int score, final int bound, final int moveCode) {
+        return ((long) score << 32) |
+                ((long) (depth + 1) & 0xFF) << 24 |
+                ((long) bound & 3) << 16 |
+                (moveCode & 0xFFFF);
+    }
+
+    public static int score(final long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public static int depth(final long entry) {
+        return (int) ((entry >>> 24) & 0xFF) - 1;
+    }
+
+    public static int bound(final long entry) {
+        return (int) ((entry >>> 16) & 3);
+    }
+
+    public static int moveCode(final long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+}
@@ -0,0 +1,498 @@
+package com.chess.engine.server;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.metrics.SlowRequestEvent;
+import com.chess.engine.pgn.FenUtilities;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.PrincipalVariation;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Class serving engine analysis over HTTP on a loopback port, for callers
+ * that cannot embed the engine in-process. Requests are handled on their
+ * own (virtual, when available) threads; searches run on a bounded pool of
+ * platform threads sharing one transposition table.
+ *
+ * Concurrent requests for the same position and budget share one search,
+ * and finished results are kept in a small LRU cache. A search that finds
+ * the engine queue full is rejected with 429 instead of queueing without
+ * bound; requests joining a running search are always admitted.
+ *
+ *   GET|POST /analyze?fen=...&depth=N&nodes=N&movetime=MS
+ *            -> {"bestmove":"e2e4","score":25,"depth":5,"nodes":38211,"pv":["e2e4",...],"source":"search"}
+ *   GET /stats -> counters and p50/p99 latencies in microseconds
+ *
+ * A POST body is read as the same form encoded parameters. The score is
+ * from the side to move's point of view; source is search, coalesced or
+ * cache.
+ */
+public final class AnalysisServer implements Closeable {
+
+    private final int requestedPort;
+    private final int defaultSearchDepth;
+    private final int maxSearchDepth;
+    private final long maxSearchMillis;
+    private final ThreadPoolExecutor engineExecutor;
+    private final ExecutorService requestExecutor;
+    private final TranspositionTable transpositionTable;
+    private final Map<String, CompletableFuture<Analysis>> searchesInFlight = new ConcurrentHashMap<>();
+    private final ResultCache resultCache;
+
+    private final LatencyHistogram requestLatency = new LatencyHistogram();
+    private final LatencyHistogram searchLatency = new LatencyHistogram();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private HttpServer httpServer;
+
+    private AnalysisServer(final Builder builder) {
+        this.requestedPort = builder.port;
+        this.defaultSearchDepth = builder.defaultSearchDepth;
+        this.maxSearchDepth = builder.maxSearchDepth;
+        this.maxSearchMillis = builder.maxSearchMillis;
+        final AtomicInteger engineThreadCount = new AtomicInteger();
+        this.engineExecutor = new ThreadPoolExecutor(builder.engineThreads, builder.engineThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(builder.queueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "analysis-engine-" + engineThreadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.requestExecutor = ConnectionThreads.newPerConnectionExecutor("analysis-request");
+        this.transpositionTable = new TranspositionTable(builder.transpositionTableSize);
+        this.resultCache = new ResultCache(builder.cacheSize);
+    }
+
+    public synchronized void start() throws IOException {
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), this.requestedPort), 1024);
+        this.httpServer.setExecutor(this.requestExecutor);
+        this.httpServer.createContext("/analyze", this::handleAnalyze);
+        this.httpServer.createContext("/stats", this::handleStats);
+        this.httpServer.start();
+    }
+
+    public int getPort() {
+        return this.httpServer.getAddress().getPort();
+    }
+
+    public LatencyHistogram getRequestLatency() {
+        return this.requestLatency;
+    }
+
+    public LatencyHistogram getSearchLatency() {
+        return this.searchLatency;
+    }
+
+    public String getStatistics() {
+        return "{\"searches\":" + this.searches.sum() +
+                ",\"coalesced\":" + this.coalesced.sum() +
+                ",\"cacheHits\":" + this.cacheHits.sum() +
+                ",\"rejected\":" + this.rejected.sum() +
+                ",\"inFlight\":" + this.searchesInFlight.size() +
+                ",\"queued\":" + this.engineExecutor.getQueue().size() +
+                ",\"request\":" + toJson(this.requestLatency) +
+                ",\"search\":" + toJson(this.searchLatency) + "}";
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.httpServer != null) {
+            this.httpServer.stop(0);
+        }
+        this.requestExecutor.shutdownNow();
+        this.engineExecutor.shutdownNow();
+    }
+
+    private void handleStats(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                reply(exchange, 405, error("use GET"));
+                return;
+            }
+            reply(exchange, 200, getStatistics());
+        }
+    }
+
+    private void handleAnalyze(final HttpExchange exchange) throws IOException {
+        final long start = System.nanoTime();
+        try (exchange) {
+            final String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("POST")) {
+                reply(exchange, 405, error("use GET or POST"));
+                return;
+            }
+            final Map<String, String> parameters = parseParameters(exchange.getRequestURI().getRawQuery());
+            if (method.equals("POST")) {
+                parameters.putAll(parseParameters(readBody(exchange.getRequestBody())));
+            }
+            final AnalysisRequest request;
+            try {
+                request = parseRequest(parameters);
+            } catch (final RuntimeException e) {
+                reply(exchange, 400, error(e.getMessage()));
+                return;
+            }
+            final Analysis cached = this.resultCache.get(request.key);
+            if (cached != null) {
+                this.cacheHits.increment();
+                reply(exchange, 200, cached.toJson("cache"));
+            } else {
+                analyze(exchange, request);
+            }
+        } finally {
+            final long elapsed = System.nanoTime() - start;
+            this.requestLatency.record(elapsed);
+            SlowRequestEvent.recordIfSlow("ANALYZE", elapsed);
+        }
+    }
+
+    private void analyze(final HttpExchange exchange, final AnalysisRequest request) throws IOException {
+        final CompletableFuture<Analysis> search = new CompletableFuture<>();
+        final CompletableFuture<Analysis> running = this.searchesInFlight.putIfAbsent(request.key, search);
+        final CompletableFuture<Analysis> result;
+        final String source;
+        if (running != null) {
+            this.coalesced.increment();
+            result = running;
+            source = "coalesced";
+        } else {
+            try {
+                this.engineExecutor.execute(() -> runSearch(request, search));
+            } catch (final RejectedExecutionException e) {
+                this.searchesInFlight.remove(request.key, search);
+                search.completeExceptionally(e);
+                this.rejected.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                reply(exchange, 429, error("engine queue full"));
+                return;
+            }
+            result = search;
+            source = "search";
+        }
+        try {
+            reply(exchange, 200, result.get().toJson(source));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reply(exchange, 503, error("interrupted"));
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                reply(exchange, 429, error("engine queue full"));
+            } else {
+                reply(exchange, 500, error(String.valueOf(e.getCause())));
+            }
+        }
+    }
+
+    private void runSearch(final AnalysisRequest request, final CompletableFuture<Analysis> search) {
+        final long start = System.nanoTime();
+        try {
+            final AlphaBeta alphaBeta = new AlphaBeta(request.depth, StandardBoardEvaluator.get(), this.transpositionTable)
+                    .setNodeLimit(request.nodeLimit)
+                    .setTimeLimitMillis(request.moveTimeMillis);
+            final Move bestMove = alphaBeta.execute(request.board);
+            final List<PrincipalVariation> lines = alphaBeta.getPrincipalVariations();
+            final Analysis analysis = new Analysis(bestMove, alphaBeta.getBestScore(), alphaBeta.getCompletedDepth(),
+                    alphaBeta.getNodesSearched(), lines.isEmpty() ? List.of() : lines.get(0).getMoves());
+            this.resultCache.put(request.key, analysis);
+            this.searches.increment();
+            search.complete(analysis);
+        } catch (final RuntimeException e) {
+            search.completeExceptionally(e);
+        } finally {
+            this.searchesInFlight.remove(request.key, search);
+            this.searchLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /*
+     * Validates the parameters and clamps the budget. The key is the FEN of
+     * the parsed board, so equal positions written differently coalesce.
+     */
+    private AnalysisRequest parseRequest(final Map<String, String> parameters) {
+        final String fen = parameters.get("fen");
+        if (fen == null || fen.isBlank()) {
+            throw new RuntimeException("missing fen");
+        }
+        final Board board = FenUtilities.createGameFromFEN(fen.trim());
+        final int depth = Math.min(this.maxSearchDepth, (int) parsePositive(parameters, "depth", this.defaultSearchDepth));
+        final long nodeLimit = parsePositive(parameters, "nodes", Long.MAX_VALUE);
+        final long moveTimeMillis = Math.min(this.maxSearchMillis, parsePositive(parameters, "movetime", this.maxSearchMillis));
+        final String key = FenUtilities.createFENFromGame(board) + "|" + depth + "|" + nodeLimit + "|" + moveTimeMillis;
+        return new AnalysisRequest(board, depth, nodeLimit, moveTimeMillis, key);
+    }
+
+    private static long parsePositive(final Map<String, String> parameters, final String name, final long defaultValue) {
+        final String value = parameters.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        final long parsed;
+        try {
+            parsed = Long.parseLong(value.trim());
+        } catch (final NumberFormatException e) {
+            throw new RuntimeException(name + " is not a number: " + value);
+        }
+        if (parsed < 1) {
+            throw new RuntimeException(name + " must be positive");
+        }
+        return parsed;
+    }
+
+    private static Map<String, String> parseParameters(final String encoded) {
+        final Map<String, String> parameters = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return parameters;
+        }
+        for (final String pair : encoded.split("&")) {
+            final int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static String readBody(final InputStream body) throws IOException {
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8).trim();
+    }
+
+    private static void reply(final HttpExchange exchange, final int status, final String json) throws IOException {
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(final String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    private static String toJson(final LatencyHistogram histogram) {
+        return "{\"count\":" + histogram.getCount() +
+                ",\"p50\":" + histogram.getPercentileMicros(50) +
+                ",\"p99\":" + histogram.getPercentileMicros(99) + "}";
+    }
+
+    private static String quote(final String text) {
+        final StringBuilder builder = new StringBuilder("\"");
+        for (final char c : String.valueOf(text).toCharArray()) {
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < ' ') {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static final class AnalysisRequest {
+
+        private final Board board;
+        private final int depth;
+        private final long nodeLimit;
+        private final long moveTimeMillis;
+        private final String key;
+
+        private AnalysisRequest(final Board board,
+                                final int depth,
+                                final long nodeLimit,
+                                final long moveTimeMillis,
+                                final String key) {
+            this.board = board;
+            this.depth = depth;
+            this.nodeLimit = nodeLimit;
+            this.moveTimeMillis = moveTimeMillis;
+            this.key = key;
+        }
+    }
+
+    /*
+     * A finished search, kept as notation so cached results hold no boards.
+     */
+    private static final class Analysis {
+
+        private final String bestMove;
+        private final int score;
+        private final int depth;
+        private final long nodes;
+        private final String[] pv;
+
+        private Analysis(final Move bestMove, final int score, final int depth, final long nodes, final List<Move> pv) {
+            this.bestMove = bestMove == MoveFactory.getNullMove() ? null : MoveUtils.toCoordinateNotation(bestMove);
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.pv = new String[pv.size()];
+            for (int i = 0; i < this.pv.length; i++) {
+                this.pv[i] = MoveUtils.toCoordinateNotation(pv.get(i));
+            }
+        }
+
+        private String toJson(final String source) {
+            final StringBuilder builder = new StringBuilder("{\"bestmove\":")
+                    .append(this.bestMove == null ? "null" : quote(this.bestMove))
+                    .append(",\"score\":").append(this.score)
+                    .append(",\"depth\":").append(this.depth)
+                    .append(",\"nodes\":").append(this.nodes)
+                    .append(",\"pv\":[");
+            for (int i = 0; i < this.pv.length; i++) {
+                builder.append(i == 0 ? "" : ",").append(quote(this.pv[i]));
+            }
+            return builder.append("],\"source\":").append(quote(source)).append('}').toString();
+        }
+    }
+
+    /*
+     * Least recently used results, evicted beyond the capacity.
+     */
+    private static final class ResultCache {
+
+        private final int capacity;
+        private final LinkedHashMap<String, Analysis> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private ResultCache(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        private synchronized Analysis get(final String key) {
+            return this.entries.get(key);
+        }
+
+        private synchronized void put(final String key, final Analysis analysis) {
+            this.entries.put(key, analysis);
+            final Iterator<Analysis> eldest = this.entries.values().iterator();
+            while (this.entries.size() > this.capacity && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private int port = 8080;
+        private int engineThreads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 4 * Runtime.getRuntime().availableProcessors();
+        private int cacheSize = 1024;
+        private int defaultSearchDepth = 5;
+        private int maxSearchDepth = 12;
+        private long maxSearchMillis = 10_000;
+        private int transpositionTableSize = 64;
+
+        /*
+         * Loopback port to listen on; 0 picks a free one.
+         */
+        public Builder setPort(final int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder setEngineThreads(final int engineThreads) {
+            if (engineThreads < 1) {
+                throw new RuntimeException("Engine threads must be at least 1");
+            }
+            this.engineThreads = engineThreads;
+            return this;
+        }
+
+        /*
+         * Searches waiting for an engine thread before requests are shed.
+         */
+        public Builder setQueueCapacity(final int queueCapacity) {
+            if (queueCapacity < 1) {
+                throw new RuntimeException("Queue capacity must be at least 1");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder setCacheSize(final int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public Builder setDefaultSearchDepth(final int defaultSearchDepth) {
+            this.defaultSearchDepth = defaultSearchDepth;
+            return this;
+        }
+
+        public Builder setMaxSearchDepth(final int maxSearchDepth) {
+            this.maxSearchDepth = maxSearchDepth;
+            return this;
+        }
+
+        /*
+         * Upper bound on every search's time, also used when no movetime is given.
+         */
+        public Builder setMaxSearchMillis(final long maxSearchMillis) {
+            this.maxSearchMillis = maxSearchMillis;
+            return this;
+        }
+
+        public Builder setTranspositionTableSize(final int transpositionTableSize) {
+            this.transpositionTableSize = transpositionTableSize;
+            return this;
+        }
+
+        public AnalysisServer build() {
+            return new AnalysisServer(this);
+        }
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final Builder builder = new Builder();
+        if (args.length > 0) {
+            builder.setPort(Integer.parseInt(args[0]));
+        }
+        if (args.length > 1) {
+            final int engineThreads = Integer.parseInt(args[1]);
+            builder.setEngineThreads(engineThreads).setQueueCapacity(4 * engineThreads);
+        }
+        final AnalysisServer server = builder.build();
+        server.start();
+        System.out.println("Analysis server listening on http://localhost:" + server.getPort() + "/analyze" +
+                (ConnectionThreads.isVirtual() ? " (virtual threads)" : " (platform threads)"));
+        while (true) {
+            Thread.sleep(10_000);
+            System.out.println(server.getStatistics());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.chess.engine.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Class creating the executor that runs one task per connection. On a
+ * runtime with virtual threads (JDK 21+) every connection gets its own
+ * virtual thread; older runtimes fall back to a cached pool of daemon
+ * platform threads. The lookup is reflective so the sources still build at
+ * the project's language level.
+ */
+final class ConnectionThreads {
+
+    private ConnectionThreads() {
+        throw new RuntimeException("You cant instantiate a Utility Class.");
+    }
+
+    static ExecutorService newPerConnectionExecutor(final String name) {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (final ReflectiveOperationException e) {
+            final AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    static boolean isVirtual() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.chess.engine.server;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.metrics.SlowRequestEvent;
+import com.chess.engine.player.MoveStatus;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Class hosting many concurrent games over a line-based protocol on a
+ * loopback socket. Every connection is served by its own (virtual, when
+ * available) thread, while engine searches run on a small bounded pool of
+ * platform threads so that CPU-bound work cannot starve connection I/O.
+ *
+ * Protocol, one command per line, one reply line per command:
+ *   NEW [depth]   start a game from the standard position  -> OK | ERROR bad depth
+ *   MOVE e2e4     play a move                               -> OK <status> | ILLEGAL_MOVE | PLAYER_IN_CHECK
+ *   GO            let the engine reply                      -> BESTMOVE <move> <status> | BUSY | NONE
+ *   BOARD         show the position, rows separated by '/'  -> BOARD ...
+ *   STATS         server latency statistics                 -> STATS ...
+ *   QUIT                                                    -> BYE
+ */
+public final class GameServer implements Closeable {
+
+    // a client cannot hold an engine thread for longer than this
+    private static final int MAX_SEARCH_DEPTH = 10;
+    private static final long SEARCH_TIME_LIMIT_MILLIS = 5_000;
+
+    private final int requestedPort;
+    private final int defaultSearchDepth;
+    private final ThreadPoolExecutor engineExecutor;
+    private final ExecutorService connectionExecutor;
+    private final TranspositionTable transpositionTable;
+
+    private final LatencyHistogram validationLatency = new LatencyHistogram();
+    private final LatencyHistogram engineLatency = new LatencyHistogram();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    private ServerSocket serverSocket;
+    private Thread acceptThread;
+
+    public GameServer(final int port,
+                      final int engineThreads,
+                      final int engineQueueCapacity,
+                      final int defaultSearchDepth) {
+        this.requestedPort = port;
+        this.defaultSearchDepth = Math.min(defaultSearchDepth, MAX_SEARCH_DEPTH);
+        final AtomicInteger engineThreadCount = new AtomicInteger();
+        this.engineExecutor = new ThreadPoolExecutor(engineThreads, engineThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(engineQueueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "engine-" + engineThreadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.connectionExecutor = ConnectionThreads.newPerConnectionExecutor("connection");
+        this.transpositionTable = new TranspositionTable(64);
+    }
+
+    public synchronized void start() throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), this.requestedPort), 1024);
+        this.acceptThread = new Thread(this::acceptConnections, "game-server-accept");
+        this.acceptThread.setDaemon(true);
+        this.acceptThread.start();
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    public int getActiveSessions() {
+        return this.activeSessions.get();
+    }
+
+    public LatencyHistogram getValidationLatency() {
+        return this.validationLatency;
+    }
+
+    public LatencyHistogram getEngineLatency() {
+        return this.engineLatency;
+    }
+
+    public String getStatistics() {
+        return "sessions=" + getActiveSessions() +
+                " validation[" + this.validationLatency + "]" +
+                " engine[" + this.engineLatency + "]";
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.serverSocket != null) {
+            this.serverSocket.close();
+        }
+        this.connectionExecutor.shutdownNow();
+        this.engineExecutor.shutdownNow();
+    }
+
+    private void acceptConnections() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                final Socket socket = this.serverSocket.accept();
+                this.connectionExecutor.execute(() -> serve(socket));
+            } catch (final IOException | RejectedExecutionException e) {
+                if (this.serverSocket.isClosed()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void serve(final Socket socket) {
+        this.activeSessions.incrementAndGet();
+        try (socket;
+             final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             final Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            GameSession session = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                final String[] tokens = line.trim().split("\\s+");
+                final String command = tokens[0].toUpperCase();
+                final String reply;
+                if (command.equals("QUIT")) {
+                    reply(out, "BYE");
+                    return;
+                } else if (command.equals("NEW")) {
+                    final int depth = tokens.length > 1 ? parseDepth(tokens[1]) : this.defaultSearchDepth;
+                    if (depth < 1) {
+                        reply = "ERROR bad depth";
+                    } else {
+                        session = new GameSession(Math.min(depth, MAX_SEARCH_DEPTH));
+                        reply = "OK";
+                    }
+                } else if (command.equals("STATS")) {
+                    reply = "STATS " + getStatistics();
+                } else if (session == null) {
+                    reply = "ERROR no game, send NEW first";
+                } else if (command.equals("MOVE") && tokens.length > 1) {
+                    reply = playMove(session, tokens[1]);
+                } else if (command.equals("GO")) {
+                    reply = playEngineMove(session);
+                } else if (command.equals("BOARD")) {
+                    reply = "BOARD " + session.getBoard().toString().trim().replace("\n", "/");
+                } else {
+                    reply = "ERROR unknown command " + tokens[0];
+                }
+                reply(out, reply);
+            }
+        } catch (final IOException | RuntimeException e) {
+            // the client went away or sent garbage; drop the connection
+        } finally {
+            this.activeSessions.decrementAndGet();
+        }
+    }
+
+    private String playMove(final GameSession session, final String notation) {
+        final long start = System.nanoTime();
+        final MoveStatus moveStatus = session.play(notation);
+        final String reply = moveStatus.isDone() ? "OK " + session.getStatus() : moveStatus.name();
+        final long elapsed = System.nanoTime() - start;
+        this.validationLatency.record(elapsed);
+        SlowRequestEvent.recordIfSlow("MOVE " + notation, elapsed);
+        return reply;
+    }
+
+    private String playEngineMove(final GameSession session) {
+        if (session.getStatus().isOver()) {
+            return "NONE " + session.getStatus();
+        }
+        final long start = System.nanoTime();
+        final AlphaBeta alphaBeta = new AlphaBeta(session.getSearchDepth(), StandardBoardEvaluator.get(), this.transpositionTable)
+                .setTimeLimitMillis(SEARCH_TIME_LIMIT_MILLIS);
+        final Future<Move> search;
+        try {
+            search = this.engineExecutor.submit(() -> alphaBeta.execute(session.getBoard(), session.getHistory()));
+        } catch (final RejectedExecutionException e) {
+            return "BUSY";
+        }
+        final Move move;
+        try {
+            move = search.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // interrupting the engine thread does not end the search
+            alphaBeta.stop();
+            search.cancel(true);
+            return "BUSY";
+        } catch (final ExecutionException e) {
+            return "ERROR " + e.getCause();
+        }
+        if (move == MoveFactory.getNullMove()) {
+            return "NONE " + session.getStatus();
+        }
+        final String notation = MoveUtils.toCoordinateNotation(move);
+        session.play(move);
+        final long elapsed = System.nanoTime() - start;
+        this.engineLatency.record(elapsed);
+        SlowRequestEvent.recordIfSlow("GO", elapsed);
+        return "BESTMOVE " + notation + " " + session.getStatus();
+    }
+
+    private static int parseDepth(final String token) {
+        try {
+            return Integer.parseInt(token);
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void reply(final Writer out, final String reply) throws IOException {
+        out.write(reply);
+        out.write('\n');
+        out.flush();
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final int port = args.length > 0 ? Integer.parseInt(args[0]) : 7878;
+        final int engineThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final int depth = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        final GameServer server = new GameServer(port, engineThreads, 4 * engineThreads, depth);
+        server.start();
+        System.out.println("Game server listening on " + server.getPort() +
+                (ConnectionThreads.isVirtual() ? " (virtual threads)" : " (platform threads)"));
+        while (true) {
+            Thread.sleep(10_000);
+            System.out.println(server.getStatistics());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.chess.engine.server;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.board.PositionHistory;
+import com.chess.engine.player.MoveStatus;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.Arrays;
+
+/*
+ * Class holding the state of one hosted game: the current board, the
+ * position history for draw detection and the moves played so far as
+ * 16-bit move codes. Earlier boards are not retained.
+ */
+final class GameSession {
+
+    private static final int HISTORY_CAPACITY = 256;
+
+    private Board board;
+    private final PositionHistory history;
+    private short[] moves;
+    private int moveCount;
+    private final int searchDepth;
+
+    GameSession(final int searchDepth) {
+        this.board = Board.createStandardBoard();
+        this.history = new PositionHistory(HISTORY_CAPACITY);
+        this.history.reset(this.board, 0);
+        this.moves = new short[64];
+        this.searchDepth = searchDepth;
+    }
+
+    Board getBoard() {
+        return this.board;
+    }
+
+    PositionHistory getHistory() {
+        return this.history;
+    }
+
+    int getSearchDepth() {
+        return this.searchDepth;
+    }
+
+    int getMoveCount() {
+        return this.moveCount;
+    }
+
+    /*
+     * Plays a move given in coordinate notation.
+     */
+    MoveStatus play(final String notation) {
+        final Move move = MoveUtils.fromCoordinateNotation(this.board, notation);
+        if (move == MoveFactory.getNullMove()) {
+            return MoveStatus.ILLEGAL_MOVE;
+        }
+        return play(move);
+    }
+
+    MoveStatus play(final Move move) {
+        final MoveTransition transition = this.board.currentPlayer().makeMove(move);
+        if (transition.getMoveStatus().isDone()) {
+            this.board = transition.getTransitionBoard();
+            this.history.push(move, this.board);
+            if (this.moveCount == this.moves.length) {
+                this.moves = Arrays.copyOf(this.moves, this.moveCount * 2);
+            }
+            this.moves[this.moveCount++] = (short) MoveUtils.encode(move);
+        }
+        return transition.getMoveStatus();
+    }
+
+    GameStatus getStatus() {
+        if (this.board.currentPlayer().isInCheckMate()) {
+            return GameStatus.CHECKMATE;
+        }
+        if (this.board.currentPlayer().isInStaleMate()) {
+            return GameStatus.STALEMATE;
+        }
+        if (this.history.isDraw()) {
+            return GameStatus.DRAW;
+        }
+        return GameStatus.ONGOING;
+    }
+
+    enum GameStatus {
+        ONGOING,
+        CHECKMATE,
+        STALEMATE,
+        DRAW;
+
+        boolean isOver() {
+            return this != ONGOING;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.chess.engine.server;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.player.MoveTransition;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Load generator for the game server. Each connection plays a random legal
+ * move and asks the engine for a reply, over and over, and the round trip
+ * latencies are collected per command type.
+ *
+ * Usage: SyntheticClient <host> <port> <connections> <moves per game> <depth>
+ */
+public final class SyntheticClient {
+
+    private final String host;
+    private final int port;
+    private final int movesPerGame;
+    private final int searchDepth;
+
+    private final LatencyHistogram moveLatency = new LatencyHistogram();
+    private final LatencyHistogram engineLatency = new LatencyHistogram();
+    private final LongAdder busyReplies = new LongAdder();
+    private final LongAdder failedConnections = new LongAdder();
+
+    public SyntheticClient(final String host,
+                           final int port,
+                           final int movesPerGame,
+                           final int searchDepth) {
+        this.host = host;
+        this.port = port;
+        this.movesPerGame = movesPerGame;
+        this.searchDepth = searchDepth;
+    }
+
+    public LatencyHistogram getMoveLatency() {
+        return this.moveLatency;
+    }
+
+    public LatencyHistogram getEngineLatency() {
+        return this.engineLatency;
+    }
+
+    public long getBusyReplies() {
+        return this.busyReplies.sum();
+    }
+
+    public long getFailedConnections() {
+        return this.failedConnections.sum();
+    }
+
+    public void run(final int connections) throws InterruptedException {
+        final ExecutorService executor = ConnectionThreads.newPerConnectionExecutor("client");
+        for (int i = 0; i < connections; i++) {
+            executor.execute(this::playGame);
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.DAYS);
+    }
+
+    private void playGame() {
+        try (final Socket socket = new Socket(this.host, this.port);
+             final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             final Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            request(in, out, "NEW " + this.searchDepth, null);
+            Board board = Board.createStandardBoard();
+            for (int i = 0; i < this.movesPerGame; i++) {
+                final Move move = randomLegalMove(board);
+                if (move == null) {
+                    break;
+                }
+                final String moveReply = request(in, out, "MOVE " + MoveUtils.toCoordinateNotation(move), this.moveLatency);
+                if (!moveReply.startsWith("OK")) {
+                    throw new RuntimeException("Server rejected " + move + ": " + moveReply);
+                }
+                board = board.currentPlayer().makeMove(move).getTransitionBoard();
+                if (!moveReply.equals("OK ONGOING")) {
+                    break;
+                }
+                final String engineReply = request(in, out, "GO", this.engineLatency);
+                if (engineReply.equals("BUSY")) {
+                    this.busyReplies.increment();
+                    continue;
+                }
+                if (!engineReply.startsWith("BESTMOVE")) {
+                    break;
+                }
+                final String[] tokens = engineReply.split(" ");
+                board = board.currentPlayer().makeMove(MoveUtils.fromCoordinateNotation(board, tokens[1])).getTransitionBoard();
+                if (!tokens[2].equals("ONGOING")) {
+                    break;
+                }
+            }
+            request(in, out, "QUIT", null);
+        } catch (final IOException | RuntimeException e) {
+            this.failedConnections.increment();
+        }
+    }
+
+    private static String request(final BufferedReader in,
+                                  final Writer out,
+                                  final String command,
+                                  final LatencyHistogram latency) throws IOException {
+        final long start = System.nanoTime();
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        final String reply = in.readLine();
+        if (reply == null) {
+            throw new IOException("Connection closed by server");
+        }
+        if (latency != null) {
+            latency.record(System.nanoTime() - start);
+        }
+        return reply;
+    }
+
+    private static Move randomLegalMove(final Board board) {
+        final List<Move> legalMoves = new ArrayList<>();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                legalMoves.add(move);
+            }
+        }
+        return legalMoves.isEmpty() ? null : legalMoves.get(ThreadLocalRandom.current().nextInt(legalMoves.size()));
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final String host = args.length > 0 ? args[0] : "127.0.0.1";
+        final int port = args.length > 1 ? Integer.parseInt(args[1]) : 7878;
+        final int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        final int movesPerGame = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        final int depth = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+        final SyntheticClient client = new SyntheticClient(host, port, movesPerGame, depth);
+        final long start = System.nanoTime();
+        client.run(connections);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("connections=" + connections + " elapsed=" + elapsedMillis + "ms" +
+                " busy=" + client.getBusyReplies() + " failed=" + client.getFailedConnections());
+        System.out.println("move   " + client.getMoveLatency());
+        System.out.println("engine " + client.getEngineLatency());
+        try (final Socket socket = new Socket(host, port);
+             final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             final Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            System.out.println(request(in, out, "STATS", null));
+            request(in, out, "QUIT", null);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.chess.engine.testsuite;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.pgn.FenUtilities;
+import com.chess.engine.pgn.PgnUtilities;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Class describing one EPD record: the position, given by the first four
+ * FEN fields, and its operations such as bm (best moves), am (moves to
+ * avoid) and id. Best and avoid moves are resolved against the position
+ * when the record is parsed.
+ */
+public final class EpdPosition {
+
+    private final Board board;
+    private final Map<String, List<String>> operations;
+    private final List<Move> bestMoves;
+    private final List<Move> avoidMoves;
+
+    private EpdPosition(final Board board, final Map<String, List<String>> operations) {
+        this.board = board;
+        this.operations = ImmutableMap.copyOf(operations);
+        this.bestMoves = resolveMoves(board, operations.get("bm"));
+        this.avoidMoves = resolveMoves(board, operations.get("am"));
+    }
+
+    public static EpdPosition parse(final String line) {
+        final String[] fields = line.trim().split("\\s+", 5);
+        if (fields.length < 4) {
+            throw new RuntimeException("Invalid EPD record: " + line);
+        }
+        final Board board = FenUtilities.createGameFromFEN(fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3]);
+        return new EpdPosition(board, fields.length > 4 ? parseOperations(fields[4]) : new LinkedHashMap<>());
+    }
+
+    public Board getBoard() {
+        return this.board;
+    }
+
+    public String getId() {
+        final List<String> id = this.operations.get("id");
+        return id == null || id.isEmpty() ? "?" : id.get(0);
+    }
+
+    public List<String> getOperation(final String opcode) {
+        return this.operations.getOrDefault(opcode, ImmutableList.of());
+    }
+
+    public List<Move> getBestMoves() {
+        return this.bestMoves;
+    }
+
+    public List<Move> getAvoidMoves() {
+        return this.avoidMoves;
+    }
+
+    /*
+     * A move solves the position if it is one of the best moves, or if only
+     * avoid moves are given, if it is none of them.
+     */
+    public boolean isSolvedBy(final Move move) {
+        if (move == MoveFactory.getNullMove()) {
+            return false;
+        }
+        final int moveCode = MoveUtils.encode(move);
+        for (final Move avoidMove : this.avoidMoves) {
+            if (MoveUtils.encode(avoidMove) == moveCode) {
+                return false;
+            }
+        }
+        if (this.bestMoves.isEmpty()) {
+            return !this.avoidMoves.isEmpty();
+        }
+        for (final Move bestMove : this.bestMoves) {
+            if (MoveUtils.encode(bestMove) == moveCode) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Splits "bm Qxf7+ Nd5; id \"WAC.001\";" into opcodes and operands,
+     * keeping quoted operands whole.
+     */
+    private static Map<String, List<String>> parseOperations(final String text) {
+        final Map<String, List<String>> operations = new LinkedHashMap<>();
+        final List<String> tokens = new ArrayList<>();
+        final StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && (c == ';' || Character.isWhitespace(c))) {
+                if (token.length() > 0) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+                if (c == ';' && !tokens.isEmpty()) {
+                    operations.put(tokens.get(0), ImmutableList.copyOf(tokens.subList(1, tokens.size())));
+                    tokens.clear();
+                }
+            } else {
+                token.append(c);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        if (!tokens.isEmpty()) {
+            operations.put(tokens.get(0), ImmutableList.copyOf(tokens.subList(1, tokens.size())));
+        }
+        return operations;
+    }
+
+    private static List<Move> resolveMoves(final Board board, final List<String> notations) {
+        if (notations == null) {
+            return ImmutableList.of();
+        }
+        final List<Move> moves = new ArrayList<>();
+        for (final String notation : notations) {
+            Move move = PgnUtilities.createMove(board, notation);
+            if (move == MoveFactory.getNullMove()) {
+                move = MoveUtils.fromCoordinateNotation(board, notation);
+            }
+            if (move == MoveFactory.getNullMove()) {
+                throw new RuntimeException("Cannot resolve move " + notation + " in " +
+                        FenUtilities.createFENFromGame(board));
+            }
+            moves.add(move);
+        }
+        return ImmutableList.copyOf(moves);
+    }
+
+    @Override
+    public String toString() {
+        return FenUtilities.createFENFromGame(this.board) + " " + this.operations;
+    }
+}
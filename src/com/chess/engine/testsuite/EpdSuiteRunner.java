@@ -0,0 +1,288 @@
+package com.chess.engine.testsuite;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
+import com.google.common.collect.ImmutableList;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * Class running an EPD test suite against the engine with a fixed node or
+ * time budget per position. A position counts as solved from the first
+ * completed iteration after which the engine's best move stayed a solution
+ * to the end of the search; that iteration gives the time and nodes to
+ * solution. With a node budget the results do not depend on timing, so
+ * positions run in parallel; with a time budget they run one at a time.
+ */
+public final class EpdSuiteRunner {
+
+    private final long nodeLimit;
+    private final long timeLimitMillis;
+    private final int maxDepth;
+    private final int hashSize;
+    private final int threads;
+    private final BoardEvaluator evaluator;
+
+    private EpdSuiteRunner(final Builder builder) {
+        this.nodeLimit = builder.nodeLimit;
+        this.timeLimitMillis = builder.timeLimitMillis;
+        this.maxDepth = builder.maxDepth;
+        this.hashSize = builder.hashSize;
+        this.threads = builder.threads;
+        this.evaluator = builder.evaluator;
+    }
+
+    public static List<EpdPosition> readSuite(final Path path) throws IOException {
+        final List<EpdPosition> positions = new ArrayList<>();
+        try (final BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    positions.add(EpdPosition.parse(line));
+                }
+            }
+        }
+        return positions;
+    }
+
+    public List<Result> run(final List<EpdPosition> positions) {
+        if (this.timeLimitMillis > 0) {
+            final List<Result> results = new ArrayList<>(positions.size());
+            for (final EpdPosition position : positions) {
+                results.add(solve(position));
+            }
+            return ImmutableList.copyOf(results);
+        }
+        final ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try {
+            return pool.submit(() -> IntStream.range(0, positions.size())
+                    .parallel()
+                    .mapToObj(i -> solve(positions.get(i)))
+                    .collect(Collectors.toList())).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Result solve(final EpdPosition position) {
+        final AlphaBeta search = new AlphaBeta(this.maxDepth, this.evaluator, new TranspositionTable(this.hashSize))
+                .setNodeLimit(this.nodeLimit);
+        if (this.timeLimitMillis > 0) {
+            search.setTimeLimitMillis(this.timeLimitMillis);
+        }
+        final SolutionTracker tracker = new SolutionTracker(position);
+        search.setSearchListener(tracker::onIterationComplete);
+        final Move bestMove = search.execute(position.getBoard());
+        return new Result(position, bestMove, position.isSolvedBy(bestMove),
+                tracker.solutionDepth, tracker.solutionNodes, tracker.solutionNanos,
+                search.getCompletedDepth(), search.getNodesSearched());
+    }
+
+    private static final class SolutionTracker {
+
+        private final EpdPosition position;
+        private int solutionDepth = -1;
+        private long solutionNodes = -1;
+        private long solutionNanos = -1;
+
+        SolutionTracker(final EpdPosition position) {
+            this.position = position;
+        }
+
+        void onIterationComplete(final int depth, final int score, final Move bestMove,
+                                 final long nodes, final long elapsedNanos) {
+            if (!this.position.isSolvedBy(bestMove)) {
+                this.solutionDepth = -1;
+                this.solutionNodes = -1;
+                this.solutionNanos = -1;
+            } else if (this.solutionDepth < 0) {
+                this.solutionDepth = depth;
+                this.solutionNodes = nodes;
+                this.solutionNanos = elapsedNanos;
+            }
+        }
+    }
+
+    public static final class Result {
+
+        private final EpdPosition position;
+        private final Move bestMove;
+        private final boolean solved;
+        private final int solutionDepth;
+        private final long solutionNodes;
+        private final long solutionNanos;
+        private final int depth;
+        private final long nodes;
+
+        private Result(final EpdPosition position,
+                       final Move bestMove,
+                       final boolean solved,
+                       final int solutionDepth,
+                       final long solutionNodes,
+                       final long solutionNanos,
+                       final int depth,
+                       final long nodes) {
+            this.position = position;
+            this.bestMove = bestMove;
+            this.solved = solved;
+            this.solutionDepth = solutionDepth;
+            this.solutionNodes = solutionNodes;
+            this.solutionNanos = solutionNanos;
+            this.depth = depth;
+            this.nodes = nodes;
+        }
+
+        public EpdPosition getPosition() {
+            return this.position;
+        }
+
+        public Move getBestMove() {
+            return this.bestMove;
+        }
+
+        public boolean isSolved() {
+            return this.solved;
+        }
+
+        /*
+         * Nodes searched when the solution was found for good, or -1.
+         */
+        public long getSolutionNodes() {
+            return this.solved ? this.solutionNodes : -1;
+        }
+
+        /*
+         * Time taken to find the solution for good, or -1.
+         */
+        public long getSolutionMillis() {
+            return this.solved ? TimeUnit.NANOSECONDS.toMillis(this.solutionNanos) : -1;
+        }
+
+        public int getSolutionDepth() {
+            return this.solved ? this.solutionDepth : -1;
+        }
+
+        public long getNodes() {
+            return this.nodes;
+        }
+
+        @Override
+        public String toString() {
+            final String move = this.bestMove == Move.MoveFactory.getNullMove() ?
+                    "none" : MoveUtils.toCoordinateNotation(this.bestMove);
+            return String.format("%-12s %-8s %-6s depth=%-3d nodes=%-10d solvedAt depth=%d nodes=%d time=%dms",
+                    this.position.getId(), this.solved ? "solved" : "FAILED", move, this.depth, this.nodes,
+                    getSolutionDepth(), getSolutionNodes(), getSolutionMillis());
+        }
+    }
+
+    public static String summarize(final List<Result> results) {
+        int solved = 0;
+        long solutionNodes = 0;
+        long solutionMillis = 0;
+        for (final Result result : results) {
+            if (result.isSolved()) {
+                solved++;
+                solutionNodes += result.getSolutionNodes();
+                solutionMillis += result.getSolutionMillis();
+            }
+        }
+        return String.format("solved %d/%d (%.1f%%), mean to solution: %d nodes, %dms",
+                solved, results.size(), results.isEmpty() ? 0.0 : 100.0 * solved / results.size(),
+                solved == 0 ? 0 : solutionNodes / solved, solved == 0 ? 0 : solutionMillis / solved);
+    }
+
+    public static class Builder {
+
+        private long nodeLimit = Long.MAX_VALUE;
+        private long timeLimitMillis;
+        private int maxDepth = 64;
+        private int hashSize = 16;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private BoardEvaluator evaluator = StandardBoardEvaluator.get();
+
+        public Builder setNodeLimit(final long nodeLimit) {
+            this.nodeLimit = nodeLimit;
+            return this;
+        }
+
+        public Builder setTimeLimitMillis(final long timeLimitMillis) {
+            this.timeLimitMillis = timeLimitMillis;
+            return this;
+        }
+
+        public Builder setMaxDepth(final int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        public Builder setHashSize(final int sizeInMegabytes) {
+            this.hashSize = sizeInMegabytes;
+            return this;
+        }
+
+        public Builder setThreads(final int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder setEvaluator(final BoardEvaluator evaluator) {
+            this.evaluator = evaluator;
+            return this;
+        }
+
+        public EpdSuiteRunner build() {
+            if (this.nodeLimit == Long.MAX_VALUE && this.timeLimitMillis <= 0 && this.maxDepth >= 64) {
+                throw new RuntimeException("Set a node limit, a time limit or a maximum depth");
+            }
+            return new EpdSuiteRunner(this);
+        }
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: EpdSuiteRunner <suite.epd> [-nodes N | -time MS] [-depth N] [-threads N]");
+            System.exit(1);
+        }
+        final Builder builder = new Builder();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-nodes":
+                    builder.setNodeLimit(Long.parseLong(args[i + 1]));
+                    break;
+                case "-time":
+                    builder.setTimeLimitMillis(Long.parseLong(args[i + 1]));
+                    break;
+                case "-depth":
+                    builder.setMaxDepth(Integer.parseInt(args[i + 1]));
+                    break;
+                case "-threads":
+                    builder.setThreads(Integer.parseInt(args[i + 1]));
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(1);
+            }
+        }
+        final List<Result> results = builder.build().run(readSuite(Paths.get(args[0])));
+        for (final Result result : results) {
+            System.out.println(result);
+        }
+        System.out.println(summarize(results));
+    }
+}
@@ -0,0 +1,64 @@
+package com.chess.engine.testsuite;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.pgn.FenUtilities;
+import com.chess.engine.player.MoveTransition;
+
+/*
+ * Class counting the leaf nodes of the legal move tree to a fixed depth,
+ * the standard check of move generation against published counts. The
+ * last ply is bulk counted with Player.countLegalMoves instead of playing
+ * every leaf move.
+ */
+public final class Perft {
+
+    private Perft() {
+        throw new RuntimeException("You cant instantiate a Utility Class.");
+    }
+
+    public static long perft(final Board board, final int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        if (depth == 1) {
+            return board.currentPlayer().countLegalMoves();
+        }
+        long nodes = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                nodes += perft(transition.getTransitionBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    public static void main(final String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: Perft <depth> [fen] [-divide]");
+            System.exit(1);
+        }
+        final int depth = Integer.parseInt(args[0]);
+        final Board board = args.length > 1 && !args[1].equals("-divide") ?
+                FenUtilities.createGameFromFEN(args[1]) : Board.createStandardBoard();
+        final boolean divide = args[args.length - 1].equals("-divide");
+        final long start = System.nanoTime();
+        long nodes = 0;
+        if (divide && depth > 0) {
+            for (final Move move : board.currentPlayer().getLegalMoves()) {
+                final MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (transition.getMoveStatus().isDone()) {
+                    final long moveNodes = perft(transition.getTransitionBoard(), depth - 1);
+                    System.out.println(MoveUtils.toCoordinateNotation(move) + ": " + moveNodes);
+                    nodes += moveNodes;
+                }
+            }
+        } else {
+            nodes = perft(board, depth);
+        }
+        final long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("perft %d: %d nodes in %d ms%n", depth, nodes, millis);
+    }
+}
@@ -0,0 +1,72 @@
+package com.chess.engine.tournament;
+
+/*
+ * Class estimating an Elo difference from a win/draw/loss record, with a
+ * 95% confidence margin derived from the per-game score variance.
+ */
+public final class EloEstimate {
+
+    private static final double Z_95 = 1.959964;
+    // keeps the interval finite when it reaches a perfect or zero score
+    private static final double MIN_SCORE = 0.001;
+
+    private final long wins;
+    private final long draws;
+    private final long losses;
+
+    public EloEstimate(final long wins, final long draws, final long losses) {
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+    }
+
+    public long getGames() {
+        return this.wins + this.draws + this.losses;
+    }
+
+    public double getScore() {
+        final long games = getGames();
+        return games == 0 ? 0.5 : (this.wins + 0.5 * this.draws) / games;
+    }
+
+    public double getElo() {
+        return eloFromScore(getScore());
+    }
+
+    /*
+     * Half width of the 95% confidence interval, in Elo.
+     */
+    public double getErrorMargin() {
+        final long games = getGames();
+        if (games == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        final double score = getScore();
+        final double variance = (this.wins * Math.pow(1 - score, 2) +
+                this.draws * Math.pow(0.5 - score, 2) +
+                this.losses * Math.pow(score, 2)) / games;
+        final double margin = Z_95 * Math.sqrt(variance / games);
+        return (eloFromScore(Math.min(score + margin, 1 - MIN_SCORE)) -
+                eloFromScore(Math.max(score - margin, MIN_SCORE))) / 2;
+    }
+
+    public static double eloFromScore(final double score) {
+        if (score <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (score >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    public static double scoreFromElo(final double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%+.1f +/- %.1f Elo (W %d D %d L %d, score %.3f)",
+                getElo(), getErrorMargin(), this.wins, this.draws, this.losses, getScore());
+    }
+}
@@ -0,0 +1,96 @@
+package com.chess.engine.tournament;
+
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TranspositionTable;
+
+/*
+ * Class describing one contestant of a tournament: its search limits,
+ * hash size and evaluator.
+ */
+public final class EngineConfiguration {
+
+    private final String name;
+    private final int depth;
+    private final long nodeLimit;
+    private final long timeLimitMillis;
+    private final int hashSize;
+    private final BoardEvaluator evaluator;
+
+    private EngineConfiguration(final Builder builder) {
+        this.name = builder.name;
+        this.depth = builder.depth;
+        this.nodeLimit = builder.nodeLimit;
+        this.timeLimitMillis = builder.timeLimitMillis;
+        this.hashSize = builder.hashSize;
+        this.evaluator = builder.evaluator;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /*
+     * Creates the search used for one game, with a fresh transposition table
+     * so that games stay independent of each other.
+     */
+    AlphaBeta newSearch() {
+        final AlphaBeta search = new AlphaBeta(this.depth, this.evaluator, new TranspositionTable(this.hashSize))
+                .setNodeLimit(this.nodeLimit);
+        if (this.timeLimitMillis > 0) {
+            search.setTimeLimitMillis(this.timeLimitMillis);
+        }
+        return search;
+    }
+
+    @Override
+    public String toString() {
+        return this.name + " (depth " + this.depth +
+                (this.nodeLimit == Long.MAX_VALUE ? "" : ", nodes " + this.nodeLimit) +
+                (this.timeLimitMillis > 0 ? ", " + this.timeLimitMillis + "ms" : "") + ")";
+    }
+
+    public static class Builder {
+
+        private final String name;
+        private int depth = 3;
+        private long nodeLimit = Long.MAX_VALUE;
+        private long timeLimitMillis;
+        private int hashSize = 8;
+        private BoardEvaluator evaluator = StandardBoardEvaluator.get();
+
+        public Builder(final String name) {
+            this.name = name;
+        }
+
+        public Builder setDepth(final int depth) {
+            this.depth = depth;
+            return this;
+        }
+
+        public Builder setNodeLimit(final long nodeLimit) {
+            this.nodeLimit = nodeLimit;
+            return this;
+        }
+
+        public Builder setTimeLimitMillis(final long timeLimitMillis) {
+            this.timeLimitMillis = timeLimitMillis;
+            return this;
+        }
+
+        public Builder setHashSize(final int sizeInMegabytes) {
+            this.hashSize = sizeInMegabytes;
+            return this;
+        }
+
+        public Builder setEvaluator(final BoardEvaluator evaluator) {
+            this.evaluator = evaluator;
+            return this;
+        }
+
+        public EngineConfiguration build() {
+            return new EngineConfiguration(this);
+        }
+    }
+}
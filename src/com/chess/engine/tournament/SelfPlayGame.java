@@ -0,0 +1,168 @@
+package com.chess.engine.tournament;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.PositionHistory;
+import com.chess.engine.pgn.PgnGame.GameResult;
+import com.chess.engine.pgn.PgnUtilities;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.Player;
+import com.chess.engine.player.ai.AlphaBeta;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Class playing one game between two engine configurations from an
+ * opening line, adjudicating as it goes.
+ */
+final class SelfPlayGame {
+
+    enum Termination {
+        CHECKMATE,
+        STALEMATE,
+        REPETITION,
+        FIFTY_MOVES,
+        INSUFFICIENT_MATERIAL,
+        MATERIAL_ADJUDICATION,
+        MAX_PLIES
+    }
+
+    private final EngineConfiguration white;
+    private final EngineConfiguration black;
+    private final List<String> opening;
+    private final Tournament.Adjudication adjudication;
+
+    private final List<String> sanMoves = new ArrayList<>();
+    private GameResult result = GameResult.UNKNOWN;
+    private Termination termination;
+
+    SelfPlayGame(final EngineConfiguration white,
+                 final EngineConfiguration black,
+                 final List<String> opening,
+                 final Tournament.Adjudication adjudication) {
+        this.white = white;
+        this.black = black;
+        this.opening = opening;
+        this.adjudication = adjudication;
+    }
+
+    List<String> getSanMoves() {
+        return this.sanMoves;
+    }
+
+    GameResult getResult() {
+        return this.result;
+    }
+
+    Termination getTermination() {
+        return this.termination;
+    }
+
+    /*
+     * Plays the game to the end. Returns false if it was abandoned because
+     * the stop flag was raised.
+     */
+    boolean play(final AtomicBoolean stop) {
+        Board board = Board.createStandardBoard();
+        final PositionHistory history = new PositionHistory(board);
+        for (final String san : this.opening) {
+            final Move move = PgnUtilities.createMove(board, san);
+            if (move == MoveFactory.getNullMove()) {
+                throw new RuntimeException("Illegal opening move " + san + " in " + this.opening);
+            }
+            board = playMove(board, move, history);
+        }
+        final AlphaBeta whiteSearch = this.white.newSearch();
+        final AlphaBeta blackSearch = this.black.newSearch();
+        int decisivePlies = 0;
+        while (!adjudicate(board, history, decisivePlies)) {
+            if (stop.get()) {
+                return false;
+            }
+            final AlphaBeta search = board.currentPlayer().getAlliance().isWhite() ? whiteSearch : blackSearch;
+            board = playMove(board, search.execute(board, history), history);
+            final int material = Math.abs(material(board.whitePlayer()) - material(board.blackPlayer()));
+            decisivePlies = material >= this.adjudication.materialThreshold ? decisivePlies + 1 : 0;
+        }
+        return true;
+    }
+
+    private Board playMove(final Board board, final Move move, final PositionHistory history) {
+        final MoveTransition transition = board.currentPlayer().makeMove(move);
+        if (!transition.getMoveStatus().isDone()) {
+            throw new RuntimeException("Engine played an illegal move on\n" + board);
+        }
+        this.sanMoves.add(PgnUtilities.toSan(board, move));
+        history.push(move, transition.getTransitionBoard());
+        return transition.getTransitionBoard();
+    }
+
+    private boolean adjudicate(final Board board, final PositionHistory history, final int decisivePlies) {
+        final Player player = board.currentPlayer();
+        if (player.isInCheckMate()) {
+            return finish(player.getAlliance().isWhite() ? GameResult.BLACK_WINS : GameResult.WHITE_WINS,
+                    Termination.CHECKMATE);
+        }
+        if (player.isInStaleMate()) {
+            return finish(GameResult.DRAW, Termination.STALEMATE);
+        }
+        if (history.isThreefoldRepetition()) {
+            return finish(GameResult.DRAW, Termination.REPETITION);
+        }
+        if (history.isFiftyMoveRule()) {
+            return finish(GameResult.DRAW, Termination.FIFTY_MOVES);
+        }
+        if (isInsufficientMaterial(board.getWhitePieces()) && isInsufficientMaterial(board.getBlackPieces())) {
+            return finish(GameResult.DRAW, Termination.INSUFFICIENT_MATERIAL);
+        }
+        if (decisivePlies >= this.adjudication.materialPlies) {
+            return finish(material(board.whitePlayer()) > material(board.blackPlayer()) ?
+                    GameResult.WHITE_WINS : GameResult.BLACK_WINS, Termination.MATERIAL_ADJUDICATION);
+        }
+        if (this.sanMoves.size() >= this.adjudication.maxPlies) {
+            return finish(GameResult.DRAW, Termination.MAX_PLIES);
+        }
+        return false;
+    }
+
+    private boolean finish(final GameResult result, final Termination termination) {
+        this.result = result;
+        this.termination = termination;
+        return true;
+    }
+
+    private static int material(final Player player) {
+        int material = 0;
+        for (final Piece piece : player.getActivePieces()) {
+            if (!piece.getPieceType().isKing()) {
+                material += piece.getPieceValue();
+            }
+        }
+        return material;
+    }
+
+    /*
+     * A lone king, or a king with a single knight or bishop.
+     */
+    private static boolean isInsufficientMaterial(final Collection<Piece> pieces) {
+        int minorPieces = 0;
+        for (final Piece piece : pieces) {
+            switch (piece.getPieceType()) {
+                case KING:
+                    break;
+                case KNIGHT:
+                case BISHOP:
+                    minorPieces++;
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return minorPieces <= 1;
+    }
+}
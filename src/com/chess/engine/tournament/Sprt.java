@@ -0,0 +1,77 @@
+package com.chess.engine.tournament;
+
+/*
+ * Class running a sequential probability ratio test between two Elo
+ * hypotheses, elo0 (usually "no gain") and elo1 (the gain hoped for),
+ * using the normal approximation to the trinomial win/draw/loss model.
+ * The test stops as soon as the log-likelihood ratio leaves the interval
+ * set by the error rates alpha and beta.
+ */
+public final class Sprt {
+
+    public enum Decision {
+        ACCEPT_H0,
+        ACCEPT_H1,
+        CONTINUE
+    }
+
+    private final double elo0;
+    private final double elo1;
+    private final double lowerBound;
+    private final double upperBound;
+
+    public Sprt(final double elo0, final double elo1, final double alpha, final double beta) {
+        if (elo1 <= elo0) {
+            throw new RuntimeException("elo1 must be greater than elo0");
+        }
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    public double getLowerBound() {
+        return this.lowerBound;
+    }
+
+    public double getUpperBound() {
+        return this.upperBound;
+    }
+
+    public double logLikelihoodRatio(final long wins, final long draws, final long losses) {
+        final long games = wins + draws + losses;
+        if (games == 0) {
+            return 0.0;
+        }
+        final double score = (wins + 0.5 * draws) / games;
+        final double variance = (wins * square(1 - score) + draws * square(0.5 - score) + losses * square(score)) / games;
+        if (variance <= 0) {
+            // all results identical, no variance estimate yet
+            return 0.0;
+        }
+        final double score0 = EloEstimate.scoreFromElo(this.elo0);
+        final double score1 = EloEstimate.scoreFromElo(this.elo1);
+        return games * (score1 - score0) * (2 * score - score0 - score1) / (2 * variance);
+    }
+
+    public Decision test(final long wins, final long draws, final long losses) {
+        final double llr = logLikelihoodRatio(wins, draws, losses);
+        if (llr >= this.upperBound) {
+            return Decision.ACCEPT_H1;
+        }
+        if (llr <= this.lowerBound) {
+            return Decision.ACCEPT_H0;
+        }
+        return Decision.CONTINUE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SPRT elo0=%.1f elo1=%.1f bounds=[%.2f, %.2f]",
+                this.elo0, this.elo1, this.lowerBound, this.upperBound);
+    }
+
+    private static double square(final double value) {
+        return value * value;
+    }
+}
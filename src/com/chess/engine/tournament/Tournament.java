@@ -0,0 +1,420 @@
+package com.chess.engine.tournament;
+
+import com.chess.engine.pgn.PgnGame;
+import com.chess.engine.pgn.PgnGame.GameResult;
+import com.chess.engine.pgn.PgnReader;
+import com.chess.engine.pgn.PgnWriter;
+import com.google.common.collect.ImmutableList;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Class running a self-play match between a candidate and a baseline
+ * engine configuration. Games are played in pairs from each opening line
+ * with colours swapped, one game per worker thread at a time, and every
+ * finished game is appended to the PGN and results files straight away.
+ * With an SPRT configured the match stops as soon as the test decides;
+ * games still running are abandoned and not counted.
+ */
+public final class Tournament {
+
+    // short, roughly balanced opening lines; each is played once with either colour
+    private static final List<String> DEFAULT_OPENINGS = ImmutableList.of(
+            "e4 e5 Nf3 Nc6",
+            "e4 e5 Nf3 Nf6",
+            "e4 c5 Nf3 d6",
+            "e4 c5 Nc3 Nc6",
+            "e4 e6 d4 d5",
+            "e4 c6 d4 d5",
+            "e4 d5 exd5 Qxd5",
+            "e4 g6 d4 Bg7",
+            "d4 d5 c4 e6",
+            "d4 d5 c4 c6",
+            "d4 Nf6 c4 g6",
+            "d4 Nf6 c4 e6",
+            "d4 f5 g3 Nf6",
+            "c4 e5 Nc3 Nf6",
+            "c4 c5 Nc3 Nc6",
+            "Nf3 d5 g3 Nf6");
+
+    private final EngineConfiguration candidate;
+    private final EngineConfiguration baseline;
+    private final List<List<String>> openings;
+    private final int games;
+    private final int threads;
+    private final Sprt sprt;
+    private final Adjudication adjudication;
+    private final Path pgnFile;
+    private final Path resultsFile;
+
+    private Tournament(final Builder builder) {
+        this.candidate = builder.candidate;
+        this.baseline = builder.baseline;
+        this.openings = builder.openings;
+        this.games = builder.games;
+        this.threads = builder.threads;
+        this.sprt = builder.sprt;
+        this.adjudication = new Adjudication(builder.maxPlies, builder.materialThreshold, builder.materialPlies);
+        this.pgnFile = builder.pgnFile;
+        this.resultsFile = builder.resultsFile;
+    }
+
+    public Summary run() throws IOException, InterruptedException {
+        final AtomicBoolean stop = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+            final Thread thread = new Thread(runnable, "self-play");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CompletionService<MatchGame> completion = new ExecutorCompletionService<>(executor);
+        for (int round = 0; round < this.games; round++) {
+            final MatchGame game = new MatchGame(round, this.openings.get((round / 2) % this.openings.size()), round % 2 == 0);
+            completion.submit(() -> game.play(stop) ? game : null);
+        }
+        executor.shutdown();
+
+        final Summary summary = new Summary(this.sprt);
+        final String date = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd"));
+        try (final PgnWriter pgn = new PgnWriter(newWriter(this.pgnFile));
+             final Writer results = newWriter(this.resultsFile)) {
+            for (int i = 0; i < this.games; i++) {
+                final MatchGame game;
+                try {
+                    game = completion.take().get();
+                } catch (final ExecutionException e) {
+                    stop.set(true);
+                    throw new RuntimeException("Game failed", e.getCause());
+                }
+                if (game == null) {
+                    continue;
+                }
+                summary.record(game.getCandidateScore());
+                pgn.writeGame(game.toPgn(date));
+                pgn.flush();
+                results.write(game + "\n");
+                results.flush();
+                if (summary.getDecision() != Sprt.Decision.CONTINUE) {
+                    stop.set(true);
+                }
+            }
+        }
+        return summary;
+    }
+
+    /*
+     * One game of the match, with the candidate on the given colour.
+     */
+    private final class MatchGame {
+
+        private final int round;
+        private final List<String> opening;
+        private final boolean candidateIsWhite;
+        private final SelfPlayGame game;
+
+        MatchGame(final int round, final List<String> opening, final boolean candidateIsWhite) {
+            this.round = round;
+            this.opening = opening;
+            this.candidateIsWhite = candidateIsWhite;
+            this.game = new SelfPlayGame(getWhite(), getBlack(), opening, Tournament.this.adjudication);
+        }
+
+        boolean play(final AtomicBoolean stop) {
+            return !stop.get() && this.game.play(stop);
+        }
+
+        EngineConfiguration getWhite() {
+            return this.candidateIsWhite ? Tournament.this.candidate : Tournament.this.baseline;
+        }
+
+        EngineConfiguration getBlack() {
+            return this.candidateIsWhite ? Tournament.this.baseline : Tournament.this.candidate;
+        }
+
+        /*
+         * 1 for a candidate win, 0.5 for a draw, 0 for a loss.
+         */
+        double getCandidateScore() {
+            final GameResult result = this.game.getResult();
+            if (result == GameResult.DRAW) {
+                return 0.5;
+            }
+            return (result == GameResult.WHITE_WINS) == this.candidateIsWhite ? 1 : 0;
+        }
+
+        PgnGame toPgn(final String date) {
+            final Map<String, String> tags = new LinkedHashMap<>();
+            tags.put("Event", "Self-play match");
+            tags.put("Site", "?");
+            tags.put("Date", date);
+            tags.put("Round", String.valueOf(this.round + 1));
+            tags.put("White", getWhite().getName());
+            tags.put("Black", getBlack().getName());
+            tags.put("Result", this.game.getResult().toString());
+            tags.put("Termination", this.game.getTermination().toString().toLowerCase());
+            tags.put("Opening", String.join(" ", this.opening));
+            tags.put("PlyCount", String.valueOf(this.game.getSanMoves().size()));
+            return new PgnGame(tags, this.game.getSanMoves(), this.game.getResult());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("round=%d white=%s black=%s result=%s termination=%s plies=%d",
+                    this.round + 1, getWhite().getName(), getBlack().getName(), this.game.getResult(),
+                    this.game.getTermination(), this.game.getSanMoves().size());
+        }
+    }
+
+    /*
+     * Class accumulating the match score from the candidate's point of view.
+     */
+    public static final class Summary {
+
+        private final Sprt sprt;
+        private long wins;
+        private long draws;
+        private long losses;
+        private Sprt.Decision decision = Sprt.Decision.CONTINUE;
+
+        private Summary(final Sprt sprt) {
+            this.sprt = sprt;
+        }
+
+        private void record(final double candidateScore) {
+            if (candidateScore == 1) {
+                this.wins++;
+            } else if (candidateScore == 0) {
+                this.losses++;
+            } else {
+                this.draws++;
+            }
+            // the first decision stops the match; games already finishing
+            // are still counted but cannot overturn it
+            if (this.sprt != null && this.decision == Sprt.Decision.CONTINUE) {
+                this.decision = this.sprt.test(this.wins, this.draws, this.losses);
+            }
+        }
+
+        public EloEstimate getElo() {
+            return new EloEstimate(this.wins, this.draws, this.losses);
+        }
+
+        public Sprt.Decision getDecision() {
+            return this.decision;
+        }
+
+        public double getLogLikelihoodRatio() {
+            return this.sprt == null ? 0.0 : this.sprt.logLikelihoodRatio(this.wins, this.draws, this.losses);
+        }
+
+        @Override
+        public String toString() {
+            final String elo = getElo().toString();
+            if (this.sprt == null) {
+                return elo;
+            }
+            return String.format("%s, LLR %.2f %s -> %s", elo, getLogLikelihoodRatio(), this.sprt, this.decision);
+        }
+    }
+
+    static final class Adjudication {
+
+        final int maxPlies;
+        final int materialThreshold;
+        final int materialPlies;
+
+        Adjudication(final int maxPlies, final int materialThreshold, final int materialPlies) {
+            this.maxPlies = maxPlies;
+            this.materialThreshold = materialThreshold;
+            this.materialPlies = materialPlies;
+        }
+    }
+
+    private static Writer newWriter(final Path path) throws IOException {
+        if (path == null) {
+            return Writer.nullWriter();
+        }
+        return new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+
+    /*
+     * Reads opening lines from the first plies of each game of a PGN file.
+     */
+    public static List<List<String>> readOpenings(final Path pgnFile, final int plies) throws IOException {
+        final List<List<String>> openings = new ArrayList<>();
+        try (final PgnReader reader = new PgnReader(Files.newBufferedReader(pgnFile, StandardCharsets.ISO_8859_1))) {
+            PgnGame game;
+            while ((game = reader.readGame()) != null) {
+                if (game.getMoves().size() >= plies) {
+                    openings.add(ImmutableList.copyOf(game.getMoves().subList(0, plies)));
+                }
+            }
+        }
+        return openings;
+    }
+
+    public static class Builder {
+
+        private final EngineConfiguration candidate;
+        private final EngineConfiguration baseline;
+        private List<List<String>> openings = defaultOpenings();
+        private int games = 2 * DEFAULT_OPENINGS.size();
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private Sprt sprt;
+        private int maxPlies = 400;
+        private int materialThreshold = 1000;
+        private int materialPlies = 8;
+        private Path pgnFile;
+        private Path resultsFile;
+
+        public Builder(final EngineConfiguration candidate, final EngineConfiguration baseline) {
+            this.candidate = candidate;
+            this.baseline = baseline;
+        }
+
+        public Builder setOpenings(final List<List<String>> openings) {
+            if (openings.isEmpty()) {
+                throw new RuntimeException("At least one opening line is needed");
+            }
+            this.openings = ImmutableList.copyOf(openings);
+            return this;
+        }
+
+        public Builder setGames(final int games) {
+            this.games = games;
+            return this;
+        }
+
+        public Builder setThreads(final int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder setSprt(final Sprt sprt) {
+            this.sprt = sprt;
+            return this;
+        }
+
+        public Builder setMaxPlies(final int maxPlies) {
+            this.maxPlies = maxPlies;
+            return this;
+        }
+
+        /*
+         * A side ahead by at least the threshold (in centipawns) for the given
+         * number of consecutive plies is declared the winner.
+         */
+        public Builder setMaterialAdjudication(final int materialThreshold, final int materialPlies) {
+            this.materialThreshold = materialThreshold;
+            this.materialPlies = materialPlies;
+            return this;
+        }
+
+        public Builder setPgnFile(final Path pgnFile) {
+            this.pgnFile = pgnFile;
+            return this;
+        }
+
+        public Builder setResultsFile(final Path resultsFile) {
+            this.resultsFile = resultsFile;
+            return this;
+        }
+
+        public Tournament build() {
+            return new Tournament(this);
+        }
+
+        private static List<List<String>> defaultOpenings() {
+            final List<List<String>> openings = new ArrayList<>();
+            for (final String line : DEFAULT_OPENINGS) {
+                openings.add(ImmutableList.copyOf(line.split(" ")));
+            }
+            return ImmutableList.copyOf(openings);
+        }
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final EngineConfiguration.Builder candidate = new EngineConfiguration.Builder("candidate");
+        final EngineConfiguration.Builder baseline = new EngineConfiguration.Builder("baseline");
+        int games = 2 * DEFAULT_OPENINGS.size();
+        int threads = Runtime.getRuntime().availableProcessors();
+        Sprt sprt = null;
+        Path pgnFile = Paths.get("match.pgn");
+        Path resultsFile = Paths.get("match.txt");
+        List<List<String>> openings = null;
+        for (int i = 0; i < args.length; i += 2) {
+            final String value = args[i + 1];
+            switch (args[i]) {
+                case "-games":
+                    games = Integer.parseInt(value);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "-depth":
+                    candidate.setDepth(Integer.parseInt(value));
+                    baseline.setDepth(Integer.parseInt(value));
+                    break;
+                case "-candidateDepth":
+                    candidate.setDepth(Integer.parseInt(value));
+                    break;
+                case "-baselineDepth":
+                    baseline.setDepth(Integer.parseInt(value));
+                    break;
+                case "-nodes":
+                    candidate.setNodeLimit(Long.parseLong(value));
+                    baseline.setNodeLimit(Long.parseLong(value));
+                    break;
+                case "-sprt":
+                    final double[] bounds = Arrays.stream(value.split(",")).mapToDouble(Double::parseDouble).toArray();
+                    sprt = new Sprt(bounds[0], bounds[1], 0.05, 0.05);
+                    break;
+                case "-openings":
+                    openings = readOpenings(Paths.get(value), 8);
+                    break;
+                case "-pgn":
+                    pgnFile = Paths.get(value);
+                    break;
+                case "-results":
+                    resultsFile = Paths.get(value);
+                    break;
+                default:
+                    System.err.println("usage: Tournament [-games N] [-threads N] [-depth N] [-candidateDepth N] " +
+                            "[-baselineDepth N] [-nodes N] [-sprt elo0,elo1] [-openings file.pgn] " +
+                            "[-pgn out.pgn] [-results out.txt]");
+                    System.exit(1);
+            }
+        }
+        final Builder matchBuilder = new Builder(candidate.build(), baseline.build())
+                .setGames(games)
+                .setThreads(threads)
+                .setSprt(sprt)
+                .setPgnFile(pgnFile)
+                .setResultsFile(resultsFile);
+        if (openings != null) {
+            matchBuilder.setOpenings(openings);
+        }
+        final long start = System.nanoTime();
+        final Summary summary = matchBuilder.build().run();
+        System.out.println(summary);
+        System.out.println("elapsed " + (System.nanoTime() - start) / 1_000_000 + "ms");
+    }
+}
@@ -0,0 +1,130 @@
+package com.chess.engine.tuning;
+
+import com.chess.engine.pieces.Piece;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Class holding the weights of the linear evaluation being tuned: a
+ * material value and a 64 square table per piece type, plus one weight per
+ * pseudo-legal move of difference in mobility. Squares are seen from the
+ * owner of the piece, so a black piece on a8 uses the a1 entry.
+ *
+ * Weights are stored one per line as "<name> <value>", which keeps tuned
+ * files readable and easy to diff.
+ */
+public final class EvaluationWeights {
+
+    static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+    static final int MATERIAL = 0;
+    static final int SQUARE_TABLES = MATERIAL + PIECE_TYPES.length;
+    static final int MOBILITY = SQUARE_TABLES + PIECE_TYPES.length * 64;
+    static final int SIZE = MOBILITY + 1;
+
+    private final double[] weights;
+
+    private EvaluationWeights(final double[] weights) {
+        this.weights = weights;
+    }
+
+    /*
+     * The weights StandardBoardEvaluator uses: piece values, flat square
+     * tables and two points per move of mobility.
+     */
+    public static EvaluationWeights defaults() {
+        final double[] weights = new double[SIZE];
+        for (final Piece.PieceType pieceType : PIECE_TYPES) {
+            weights[materialIndex(pieceType)] = pieceType.getPieceValue();
+        }
+        weights[MOBILITY] = 2;
+        return new EvaluationWeights(weights);
+    }
+
+    public static EvaluationWeights of(final double[] weights) {
+        if (weights.length != SIZE) {
+            throw new RuntimeException("Expected " + SIZE + " weights, got " + weights.length);
+        }
+        return new EvaluationWeights(weights.clone());
+    }
+
+    public static EvaluationWeights load(final Path path) throws IOException {
+        final double[] weights = defaults().weights;
+        final List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (final String line : lines) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            final String[] fields = line.trim().split("\\s+");
+            if (fields.length != 2) {
+                throw new IOException("Malformed weight line: " + line);
+            }
+            weights[indexOf(fields[0])] = Double.parseDouble(fields[1]);
+        }
+        return new EvaluationWeights(weights);
+    }
+
+    public void save(final Path path) throws IOException {
+        final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (final BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < SIZE; i++) {
+                writer.write(nameOf(i) + " " + this.weights[i]);
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public double get(final int index) {
+        return this.weights[index];
+    }
+
+    public double[] toArray() {
+        return this.weights.clone();
+    }
+
+    static int materialIndex(final Piece.PieceType pieceType) {
+        return MATERIAL + pieceType.ordinal();
+    }
+
+    /*
+     * Square table entry for a piece, with the square seen from the piece's owner.
+     */
+    static int squareIndex(final Piece.PieceType pieceType, final boolean white, final int tileCoordinate) {
+        return SQUARE_TABLES + pieceType.ordinal() * 64 + (white ? tileCoordinate : tileCoordinate ^ 56);
+    }
+
+    static String nameOf(final int index) {
+        if (index < SQUARE_TABLES) {
+            return "material." + PIECE_TYPES[index - MATERIAL];
+        }
+        if (index < MOBILITY) {
+            final int entry = index - SQUARE_TABLES;
+            return "square." + PIECE_TYPES[entry / 64] + "." + (entry % 64);
+        }
+        if (index == MOBILITY) {
+            return "mobility";
+        }
+        throw new RuntimeException("No weight at index " + index);
+    }
+
+    private static int indexOf(final String name) {
+        for (int i = 0; i < SIZE; i++) {
+            if (nameOf(i).equals(name)) {
+                return i;
+            }
+        }
+        throw new RuntimeException("Unknown weight " + name);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.weights);
+    }
+}
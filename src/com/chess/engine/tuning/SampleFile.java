@@ -0,0 +1,166 @@
+package com.chess.engine.tuning;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pgn.PgnGame.GameResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/*
+ * Class giving read-only access to a file of labelled training positions
+ * through memory mapping. Every sample is a fixed size record holding the
+ * game result and just what the linear evaluation looks at, so the tuner
+ * scores samples straight from the mapped pages without building boards:
+ *
+ *   byte      result: 0 black won, 1 draw, 2 white won
+ *   byte      number of pieces (at most 32)
+ *   short     white mobility
+ *   short     black mobility
+ *   short[32] pieces: tile coordinate | piece type ordinal << 6 | black << 9
+ *
+ * Files larger than 2GB are mapped in several segments holding a whole
+ * number of records each. Reads use absolute offsets only, so one instance
+ * can be shared by any number of threads.
+ */
+public final class SampleFile implements Closeable {
+
+    static final int MAX_PIECES = 32;
+    static final int RECORD_SIZE = 6 + 2 * MAX_PIECES;
+
+    private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_SIZE;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int size;
+
+    private SampleFile(final FileChannel channel, final MappedByteBuffer[] segments, final int size) {
+        this.channel = channel;
+        this.segments = segments;
+        this.size = size;
+    }
+
+    public static SampleFile open(final Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        final long length = channel.size();
+        if (length % RECORD_SIZE != 0) {
+            channel.close();
+            throw new IOException(path + " is not a sample file");
+        }
+        final long records = length / RECORD_SIZE;
+        if (records > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException(path + " holds more than " + Integer.MAX_VALUE + " samples");
+        }
+        final int segmentCount = (int) ((records + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+        final MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            final long start = (long) i * RECORDS_PER_SEGMENT * RECORD_SIZE;
+            final long segmentLength = Math.min((long) RECORDS_PER_SEGMENT * RECORD_SIZE, length - start);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, segmentLength);
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new SampleFile(channel, segments, (int) records);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /*
+     * Result of the sample's game from white's point of view: 0, 0.5 or 1.
+     */
+    double result(final int sample) {
+        return segment(sample).get(offset(sample)) * 0.5;
+    }
+
+    /*
+     * Linear evaluation of the sample from white's point of view.
+     */
+    double evaluate(final int sample, final double[] weights) {
+        final ByteBuffer segment = segment(sample);
+        final int offset = offset(sample);
+        final int pieces = segment.get(offset + 1);
+        double score = weights[EvaluationWeights.MOBILITY] *
+                (segment.getShort(offset + 2) - segment.getShort(offset + 4));
+        for (int i = 0; i < pieces; i++) {
+            final int piece = segment.getShort(offset + 6 + 2 * i);
+            final int sign = (piece & 0x200) == 0 ? 1 : -1;
+            score += sign * (weights[EvaluationWeights.MATERIAL + ((piece >>> 6) & 7)] +
+                    weights[squareIndex(piece)]);
+        }
+        return score;
+    }
+
+    /*
+     * Adds factor times the sample's features to the gradient; the linear
+     * evaluation's derivative by each weight is just that weight's feature.
+     */
+    void accumulate(final int sample, final double factor, final double[] gradient) {
+        final ByteBuffer segment = segment(sample);
+        final int offset = offset(sample);
+        final int pieces = segment.get(offset + 1);
+        gradient[EvaluationWeights.MOBILITY] += factor *
+                (segment.getShort(offset + 2) - segment.getShort(offset + 4));
+        for (int i = 0; i < pieces; i++) {
+            final int piece = segment.getShort(offset + 6 + 2 * i);
+            final double signed = (piece & 0x200) == 0 ? factor : -factor;
+            gradient[EvaluationWeights.MATERIAL + ((piece >>> 6) & 7)] += signed;
+            gradient[squareIndex(piece)] += signed;
+        }
+    }
+
+    private static int squareIndex(final int piece) {
+        final int coordinate = piece & 63;
+        return EvaluationWeights.SQUARE_TABLES + ((piece >>> 6) & 7) * 64 +
+                ((piece & 0x200) == 0 ? coordinate : coordinate ^ 56);
+    }
+
+    private ByteBuffer segment(final int sample) {
+        return this.segments[sample / RECORDS_PER_SEGMENT];
+    }
+
+    private static int offset(final int sample) {
+        return (sample % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+    }
+
+    /*
+     * Writes the record for a board and the result of its game into the
+     * buffer at its current position.
+     */
+    static void encode(final Board board, final GameResult result, final ByteBuffer buffer) {
+        final int start = buffer.position();
+        buffer.put((byte) (result == GameResult.WHITE_WINS ? 2 : result == GameResult.DRAW ? 1 : 0));
+        buffer.put((byte) 0);
+        buffer.putShort((short) board.whitePlayer().getLegalMoves().size());
+        buffer.putShort((short) board.blackPlayer().getLegalMoves().size());
+        final int pieces = board.getWhitePieces().size() + board.getBlackPieces().size();
+        if (pieces > MAX_PIECES) {
+            throw new RuntimeException("More than " + MAX_PIECES + " pieces on the board");
+        }
+        buffer.put(start + 1, (byte) pieces);
+        encodePieces(board.getWhitePieces(), 0, buffer);
+        encodePieces(board.getBlackPieces(), 1, buffer);
+        while (buffer.position() < start + RECORD_SIZE) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    private static void encodePieces(final Collection<Piece> pieces, final int black, final ByteBuffer buffer) {
+        for (final Piece piece : pieces) {
+            buffer.putShort((short) (piece.getPiecePosition() | piece.getPieceType().ordinal() << 6 | black << 9));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,128 @@
+package com.chess.engine.tuning;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.pgn.PgnGame;
+import com.chess.engine.pgn.PgnGame.GameResult;
+import com.chess.engine.pgn.PgnReader;
+import com.chess.engine.pgn.PgnUtilities;
+import com.chess.engine.player.MoveTransition;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Class appending labelled positions to a SampleFile. Positions from PGN
+ * games are labelled with the game's result; the opening plies, positions
+ * with the side to move in check and games without a result are skipped,
+ * since their outcome says little about the static evaluation.
+ */
+public final class SampleWriter implements Closeable {
+
+    private static final int BUFFERED_SAMPLES = 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long written;
+
+    public SampleWriter(final Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocateDirect(BUFFERED_SAMPLES * SampleFile.RECORD_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public void write(final Board board, final GameResult result) throws IOException {
+        if (result == GameResult.UNKNOWN) {
+            throw new RuntimeException("Samples need a decided game result");
+        }
+        if (this.buffer.remaining() < SampleFile.RECORD_SIZE) {
+            flush();
+        }
+        SampleFile.encode(board, result, this.buffer);
+        this.written++;
+    }
+
+    /*
+     * Writes the positions of every game in the PGN, skipping the first
+     * skipPlies plies of each, and returns the number of samples written.
+     */
+    public long writeGames(final Reader pgn, final int skipPlies) throws IOException {
+        final long before = this.written;
+        final PgnReader reader = new PgnReader(pgn);
+        PgnGame game;
+        while ((game = reader.readGame()) != null) {
+            if (game.getResult() == GameResult.UNKNOWN) {
+                continue;
+            }
+            Board board = Board.createStandardBoard();
+            int ply = 0;
+            for (final String san : game.getMoves()) {
+                final Move move = PgnUtilities.createMove(board, san);
+                if (move == Move.MoveFactory.getNullMove()) {
+                    break;
+                }
+                final MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (!transition.getMoveStatus().isDone()) {
+                    break;
+                }
+                board = transition.getTransitionBoard();
+                ply++;
+                if (ply > skipPlies && !board.currentPlayer().isInCheck()) {
+                    write(board, game.getResult());
+                }
+            }
+        }
+        return this.written - before;
+    }
+
+    public long getSamplesWritten() {
+        return this.written;
+    }
+
+    public void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: SampleWriter <samples.bin> <games.pgn>... [-skip PLIES]");
+            System.exit(1);
+        }
+        int skipPlies = 8;
+        try (final SampleWriter writer = new SampleWriter(Paths.get(args[0]))) {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("-skip") && i + 1 < args.length) {
+                    skipPlies = Integer.parseInt(args[++i]);
+                    continue;
+                }
+                try (final Reader pgn = Files.newBufferedReader(Paths.get(args[i]), StandardCharsets.ISO_8859_1)) {
+                    System.out.println(args[i] + ": " + writer.writeGames(pgn, skipPlies) + " samples");
+                }
+            }
+            System.out.println(writer.getSamplesWritten() + " samples written to " + args[0]);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.chess.engine.tuning;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/*
+ * Class fitting EvaluationWeights to labelled positions with Texel's
+ * method: minimise the mean squared difference between each game result
+ * and sigmoid(K * eval / 400), where K is first fitted to the starting
+ * weights. Every epoch takes one full-batch gradient, computed with a
+ * parallel stream over the memory-mapped samples, and one Adam step.
+ *
+ * With a checkpoint file the optimiser state is saved every few epochs and
+ * picked up again on the next run, so long tuning runs survive restarts.
+ */
+public final class TexelTuner {
+
+    private static final int CHECKPOINT_MAGIC = 0x54455845;
+    private static final double LN_10 = Math.log(10);
+    private static final double EPSILON = 1e-8;
+
+    private final SampleFile samples;
+    private final int epochs;
+    private final double learningRate;
+    private final double beta1;
+    private final double beta2;
+    private final int parallelism;
+    private final Path checkpoint;
+    private final int checkpointInterval;
+    private final Listener listener;
+
+    private double scalingConstant;
+    private double[] weights;
+    private double[] firstMoment;
+    private double[] secondMoment;
+    private int epoch;
+
+    private TexelTuner(final Builder builder) {
+        this.samples = builder.samples;
+        this.epochs = builder.epochs;
+        this.learningRate = builder.learningRate;
+        this.beta1 = builder.beta1;
+        this.beta2 = builder.beta2;
+        this.parallelism = builder.parallelism;
+        this.checkpoint = builder.checkpoint;
+        this.checkpointInterval = builder.checkpointInterval;
+        this.listener = builder.listener;
+        this.scalingConstant = builder.scalingConstant;
+        this.weights = builder.weights.toArray();
+        this.firstMoment = new double[EvaluationWeights.SIZE];
+        this.secondMoment = new double[EvaluationWeights.SIZE];
+    }
+
+    public interface Listener {
+
+        void onEpoch(int epoch, double loss, double scalingConstant, double positionsPerSecond);
+    }
+
+    public EvaluationWeights tune() throws IOException {
+        if (this.samples.size() == 0) {
+            throw new RuntimeException("No samples to tune on");
+        }
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            if (this.checkpoint != null && Files.exists(this.checkpoint)) {
+                readCheckpoint();
+            } else if (this.scalingConstant <= 0) {
+                this.scalingConstant = fitScalingConstant(pool);
+            }
+            while (this.epoch < this.epochs) {
+                final long start = System.nanoTime();
+                final Gradient gradient = computeGradient(pool, this.weights, this.scalingConstant, true);
+                step(gradient.values);
+                this.epoch++;
+                final double seconds = (System.nanoTime() - start) / 1e9;
+                if (this.listener != null) {
+                    this.listener.onEpoch(this.epoch, gradient.loss / this.samples.size(), this.scalingConstant,
+                            this.samples.size() / seconds);
+                }
+                if (this.checkpoint != null &&
+                        (this.epoch % this.checkpointInterval == 0 || this.epoch == this.epochs)) {
+                    writeCheckpoint();
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return EvaluationWeights.of(this.weights);
+    }
+
+    public double getScalingConstant() {
+        return this.scalingConstant;
+    }
+
+    /*
+     * Mean loss of the given weights over all samples.
+     */
+    public double loss(final EvaluationWeights weights) {
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            return computeGradient(pool, weights.toArray(), this.scalingConstant > 0 ?
+                    this.scalingConstant : fitScalingConstant(pool), false).loss / this.samples.size();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void step(final double[] gradient) {
+        final double scale = 1.0 / this.samples.size();
+        final double correction1 = 1 - Math.pow(this.beta1, this.epoch + 1);
+        final double correction2 = 1 - Math.pow(this.beta2, this.epoch + 1);
+        for (int i = 0; i < this.weights.length; i++) {
+            final double g = gradient[i] * scale;
+            this.firstMoment[i] = this.beta1 * this.firstMoment[i] + (1 - this.beta1) * g;
+            this.secondMoment[i] = this.beta2 * this.secondMoment[i] + (1 - this.beta2) * g * g;
+            this.weights[i] -= this.learningRate * (this.firstMoment[i] / correction1) /
+                    (Math.sqrt(this.secondMoment[i] / correction2) + EPSILON);
+        }
+    }
+
+    /*
+     * Golden section search for the K that best fits the starting weights.
+     */
+    private double fitScalingConstant(final ForkJoinPool pool) {
+        final double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = 0.1;
+        double high = 3.0;
+        double left = high - ratio * (high - low);
+        double right = low + ratio * (high - low);
+        double leftLoss = computeGradient(pool, this.weights, left, false).loss;
+        double rightLoss = computeGradient(pool, this.weights, right, false).loss;
+        while (high - low > 1e-3) {
+            if (leftLoss < rightLoss) {
+                high = right;
+                right = left;
+                rightLoss = leftLoss;
+                left = high - ratio * (high - low);
+                leftLoss = computeGradient(pool, this.weights, left, false).loss;
+            } else {
+                low = left;
+                left = right;
+                leftLoss = rightLoss;
+                right = low + ratio * (high - low);
+                rightLoss = computeGradient(pool, this.weights, right, false).loss;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    private Gradient computeGradient(final ForkJoinPool pool,
+                                     final double[] weights,
+                                     final double scalingConstant,
+                                     final boolean withGradient) {
+        return pool.submit(() -> IntStream.range(0, this.samples.size())
+                .parallel()
+                .collect(() -> new Gradient(withGradient),
+                        (gradient, sample) -> gradient.add(this.samples, sample, weights, scalingConstant),
+                        Gradient::merge)).join();
+    }
+
+    /*
+     * Loss and gradient summed over the samples one worker has seen.
+     */
+    private static final class Gradient {
+
+        private final double[] values;
+        private double loss;
+
+        Gradient(final boolean withGradient) {
+            this.values = withGradient ? new double[EvaluationWeights.SIZE] : null;
+        }
+
+        void add(final SampleFile samples, final int sample, final double[] weights, final double scalingConstant) {
+            final double evaluation = samples.evaluate(sample, weights);
+            final double predicted = 1 / (1 + Math.pow(10, -scalingConstant * evaluation / 400));
+            final double error = samples.result(sample) - predicted;
+            this.loss += error * error;
+            if (this.values != null) {
+                final double factor = -2 * error * predicted * (1 - predicted) * LN_10 * scalingConstant / 400;
+                samples.accumulate(sample, factor, this.values);
+            }
+        }
+
+        void merge(final Gradient other) {
+            this.loss += other.loss;
+            if (this.values != null) {
+                for (int i = 0; i < this.values.length; i++) {
+                    this.values[i] += other.values[i];
+                }
+            }
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        final Path temporary = this.checkpoint.resolveSibling(this.checkpoint.getFileName() + ".tmp");
+        try (final DataOutputStream output = new DataOutputStream(Files.newOutputStream(temporary))) {
+            output.writeInt(CHECKPOINT_MAGIC);
+            output.writeInt(EvaluationWeights.SIZE);
+            output.writeInt(this.epoch);
+            output.writeDouble(this.scalingConstant);
+            for (int i = 0; i < EvaluationWeights.SIZE; i++) {
+                output.writeDouble(this.weights[i]);
+                output.writeDouble(this.firstMoment[i]);
+                output.writeDouble(this.secondMoment[i]);
+            }
+        }
+        Files.move(temporary, this.checkpoint, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void readCheckpoint() throws IOException {
+        try (final DataInputStream input = new DataInputStream(Files.newInputStream(this.checkpoint))) {
+            if (input.readInt() != CHECKPOINT_MAGIC || input.readInt() != EvaluationWeights.SIZE) {
+                throw new IOException(this.checkpoint + " is not a checkpoint for these weights");
+            }
+            this.epoch = input.readInt();
+            this.scalingConstant = input.readDouble();
+            for (int i = 0; i < EvaluationWeights.SIZE; i++) {
+                this.weights[i] = input.readDouble();
+                this.firstMoment[i] = input.readDouble();
+                this.secondMoment[i] = input.readDouble();
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private final SampleFile samples;
+        private EvaluationWeights weights = EvaluationWeights.defaults();
+        private int epochs = 1000;
+        private double learningRate = 1.0;
+        private double beta1 = 0.9;
+        private double beta2 = 0.999;
+        private double scalingConstant;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private Path checkpoint;
+        private int checkpointInterval = 25;
+        private Listener listener;
+
+        public Builder(final SampleFile samples) {
+            this.samples = samples;
+        }
+
+        public Builder setWeights(final EvaluationWeights weights) {
+            this.weights = weights;
+            return this;
+        }
+
+        public Builder setEpochs(final int epochs) {
+            this.epochs = epochs;
+            return this;
+        }
+
+        public Builder setLearningRate(final double learningRate) {
+            this.learningRate = learningRate;
+            return this;
+        }
+
+        public Builder setMomentDecay(final double beta1, final double beta2) {
+            this.beta1 = beta1;
+            this.beta2 = beta2;
+            return this;
+        }
+
+        /*
+         * Fixes K instead of fitting it to the starting weights.
+         */
+        public Builder setScalingConstant(final double scalingConstant) {
+            this.scalingConstant = scalingConstant;
+            return this;
+        }
+
+        public Builder setParallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder setCheckpoint(final Path checkpoint, final int everyEpochs) {
+            this.checkpoint = checkpoint;
+            this.checkpointInterval = everyEpochs;
+            return this;
+        }
+
+        public Builder setListener(final Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public TexelTuner build() {
+            return new TexelTuner(this);
+        }
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: TexelTuner <samples.bin> <weights.txt> [-epochs N] [-rate R] " +
+                    "[-threads N] [-checkpoint FILE] [-k K]");
+            System.exit(1);
+        }
+        final Path output = Paths.get(args[1]);
+        try (final SampleFile samples = SampleFile.open(Paths.get(args[0]))) {
+            final Builder builder = new Builder(samples);
+            if (Files.exists(output)) {
+                builder.setWeights(EvaluationWeights.load(output));
+            }
+            for (int i = 2; i + 1 < args.length; i += 2) {
+                final String value = args[i + 1];
+                switch (args[i]) {
+                    case "-epochs":
+                        builder.setEpochs(Integer.parseInt(value));
+                        break;
+                    case "-rate":
+                        builder.setLearningRate(Double.parseDouble(value));
+                        break;
+                    case "-threads":
+                        builder.setParallelism(Integer.parseInt(value));
+                        break;
+                    case "-checkpoint":
+                        builder.setCheckpoint(Paths.get(value), 25);
+                        break;
+                    case "-k":
+                        builder.setScalingConstant(Double.parseDouble(value));
+                        break;
+                    default:
+                        System.err.println("Unknown option " + args[i]);
+                        System.exit(1);
+                }
+            }
+            builder.setListener((epoch, loss, k, rate) ->
+                    System.out.printf("epoch %d loss %.6f K %.3f %.0f positions/s%n", epoch, loss, k, rate));
+            System.out.println(samples.size() + " samples");
+            builder.build().tune().save(output);
+            System.out.println("weights written to " + output);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.chess.engine.tuning;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.ai.BoardEvaluator;
+
+/*
+ * Class scoring a board with tuned EvaluationWeights: the same material,
+ * square tables and mobility terms the tuner fits, rounded to centipawns.
+ */
+public final class TunedBoardEvaluator implements BoardEvaluator {
+
+    private final double[] weights;
+
+    public TunedBoardEvaluator(final EvaluationWeights weights) {
+        this.weights = weights.toArray();
+    }
+
+    @Override
+    public int evaluate(final Board board, final int depth) {
+        double score = this.weights[EvaluationWeights.MOBILITY] *
+                (board.whitePlayer().getLegalMoves().size() - board.blackPlayer().getLegalMoves().size());
+        for (final Piece piece : board.getWhitePieces()) {
+            score += scorePiece(piece, true);
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            score -= scorePiece(piece, false);
+        }
+        return (int) Math.round(score);
+    }
+
+    private double scorePiece(final Piece piece, final boolean white) {
+        return this.weights[EvaluationWeights.materialIndex(piece.getPieceType())] +
+                this.weights[EvaluationWeights.squareIndex(piece.getPieceType(), white, piece.getPiecePosition())];
+    }
+}